@@ -0,0 +1,58 @@
+package com.insurance.premium.benchmark;
+
+import com.insurance.premium.util.CsvReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Parsen der vollständigen `data/postcodes.csv` mit dem {@link CsvReader}, so wie
+ * `RegionDataService` die Zeilen liest: alle Felder einer Zeile werden gelesen und die Koordinaten als Zahl geparst.
+ * Die Datei liegt im Speicher, damit nur das Parsen gemessen wird.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParsingBenchmark {
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream input = new ClassPathResource("data/postcodes.csv").getInputStream()) {
+            csv = input.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public long parseRegionRows(Blackhole blackhole) throws IOException {
+        long rows = 0;
+        try (CsvReader reader = new CsvReader(new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))) {
+            reader.next();
+            while (reader.next()) {
+                if (reader.columnCount() < 16) {
+                    continue;
+                }
+                blackhole.consume(reader.get(1));
+                blackhole.consume(reader.get(2));
+                blackhole.consume(reader.get(4));
+                blackhole.consume(reader.get(5));
+                blackhole.consume(reader.get(6));
+                blackhole.consume(Double.parseDouble(reader.get(10)));
+                blackhole.consume(Double.parseDouble(reader.get(11)));
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
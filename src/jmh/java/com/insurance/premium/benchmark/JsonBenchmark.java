@@ -0,0 +1,148 @@
+package com.insurance.premium.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.VehicleTypeDeserializer;
+import com.insurance.premium.enums.VehicleType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die JSON-Verarbeitung: den {@link VehicleTypeDeserializer} allein sowie Serialisierung,
+ * Deserialisierung und den vollständigen Round-Trip eines {@link InsuranceCalculationDTO}.
+ * <p>
+ * Die Varianten mit dem Präfix `reflective` entsprechen dem früheren Stand: reflektive Record-Bindung und ein
+ * Fahrzeugtyp-Deserializer, der unbekannte Werte über eine Exception erkennt. Mit `-prof gc` zeigt
+ * `gc.alloc.rate.norm` die pro Aufruf allokierten Bytes beider Varianten.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private static final String JSON = "{\"id\":42,\"annualKilometers\":12000,\"postcode\":\"79189\","
+            + "\"registrationOffice\":\"Baden-Württemberg\",\"vehicleType\":\"car\",\"calculatedPremium\":1.5}";
+    private static final String UNKNOWN_VEHICLE_TYPE_JSON = JSON.replace("\"car\"", "\"spaceship\"");
+
+    private ObjectReader vehicleTypeReader;
+    private ObjectReader reflectiveVehicleTypeReader;
+    private ObjectReader dtoReader;
+    private ObjectWriter dtoWriter;
+    private ObjectReader reflectiveDtoReader;
+    private ObjectWriter reflectiveDtoWriter;
+    private InsuranceCalculationDTO dto;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        vehicleTypeReader = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(VehicleType.class, new VehicleTypeDeserializer()))
+                .readerFor(VehicleType.class);
+        reflectiveVehicleTypeReader = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(VehicleType.class, new ExceptionVehicleTypeDeserializer()))
+                .readerFor(VehicleType.class);
+        dtoReader = objectMapper.readerFor(InsuranceCalculationDTO.class);
+        dtoWriter = objectMapper.writerFor(InsuranceCalculationDTO.class);
+
+        ObjectMapper reflectiveMapper = new ObjectMapper().addMixIn(InsuranceCalculationDTO.class, ReflectiveBinding.class);
+        reflectiveDtoReader = reflectiveMapper.readerFor(InsuranceCalculationDTO.class);
+        reflectiveDtoWriter = reflectiveMapper.writerFor(InsuranceCalculationDTO.class);
+        dto = dtoReader.readValue(JSON);
+    }
+
+    @Benchmark
+    public VehicleType vehicleTypeDeserializer() throws IOException {
+        return vehicleTypeReader.readValue("\"motorcycle\"");
+    }
+
+    @Benchmark
+    public VehicleType vehicleTypeDeserializerUnknown() throws IOException {
+        return vehicleTypeReader.readValue("\"spaceship\"");
+    }
+
+    @Benchmark
+    public VehicleType reflectiveVehicleTypeDeserializerUnknown() throws IOException {
+        return reflectiveVehicleTypeReader.readValue("\"spaceship\"");
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO deserialize() throws IOException {
+        return dtoReader.readValue(JSON);
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO deserializeUnknownVehicleType() throws IOException {
+        return dtoReader.readValue(UNKNOWN_VEHICLE_TYPE_JSON);
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO reflectiveDeserialize() throws IOException {
+        return reflectiveDtoReader.readValue(JSON);
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO reflectiveDeserializeUnknownVehicleType() throws IOException {
+        return reflectiveDtoReader.readValue(UNKNOWN_VEHICLE_TYPE_JSON);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return dtoWriter.writeValueAsString(dto);
+    }
+
+    @Benchmark
+    public String reflectiveSerialize() throws IOException {
+        return reflectiveDtoWriter.writeValueAsString(dto);
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO roundTrip() throws IOException {
+        return dtoReader.readValue(dtoWriter.writeValueAsBytes(dto));
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO reflectiveRoundTrip() throws IOException {
+        return reflectiveDtoReader.readValue(reflectiveDtoWriter.writeValueAsBytes(dto));
+    }
+
+    /**
+     * Schaltet den Streaming-Codec ab, sodass Jackson den Record reflektiv bindet.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    abstract static class ReflectiveBinding {
+
+        @JsonDeserialize(using = ExceptionVehicleTypeDeserializer.class)
+        abstract VehicleType vehicleType();
+    }
+
+    /**
+     * Früherer Fahrzeugtyp-Deserializer, der unbekannte Werte über die Exception von `valueOf` erkennt.
+     */
+    static class ExceptionVehicleTypeDeserializer extends JsonDeserializer<VehicleType> {
+
+        @Override
+        public VehicleType deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String value = p.getText().toUpperCase();
+            try {
+                return VehicleType.valueOf(value);
+            } catch (IllegalArgumentException e) {
+                return VehicleType.DEFAULT_FACTOR;
+            }
+        }
+    }
+}
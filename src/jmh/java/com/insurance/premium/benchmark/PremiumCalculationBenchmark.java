@@ -0,0 +1,73 @@
+package com.insurance.premium.benchmark;
+
+import com.insurance.premium.config.RegionSnapshotConfig;
+import com.insurance.premium.config.TariffProperties;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.service.InsuranceCalculationService;
+import com.insurance.premium.service.PostcodeIndex;
+import com.insurance.premium.service.PremiumMetrics;
+import com.insurance.premium.service.PremiumRateTable;
+import com.insurance.premium.service.TariffEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Prämienberechnung: den Zugriff auf die {@link PremiumRateTable}, die Ermittlung der Kilometerstufe
+ * und die vollständige Berechnung über {@link InsuranceCalculationService#quote(InsuranceCalculationDTO)}
+ * inklusive Auflösung der Region aus der Postleitzahl.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PremiumCalculationBenchmark {
+
+    private static final int[] KILOMETERS = {3000, 7500, 15000, 40000};
+    private static final VehicleType[] VEHICLES = VehicleType.values();
+    private static final BundeslandISO[] REGIONS = BundeslandISO.values();
+
+    private InsuranceCalculationService service;
+    private InsuranceCalculationDTO[] quotes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        // quote() greift weder auf das Repository noch auf Write-Behind zu.
+        TariffEngine tariffEngine = new TariffEngine(new TariffProperties("classpath:tariff/tariff.json", false),
+                new DefaultResourceLoader(), new SimpleMeterRegistry(), new StandardEnvironment());
+        service = new InsuranceCalculationService(null, new PostcodeIndex(new RegionSnapshotConfig().regionSnapshot()), null,
+                new PremiumMetrics(new SimpleMeterRegistry()), tariffEngine);
+        quotes = new InsuranceCalculationDTO[]{
+                new InsuranceCalculationDTO(null, 12000, "79189", null, VehicleType.CAR, null, null),
+                new InsuranceCalculationDTO(null, 4000, "80331", null, VehicleType.TRUCK, null, null),
+                new InsuranceCalculationDTO(null, 25000, null, "Berlin", VehicleType.MOTORCYCLE, null, null),
+                new InsuranceCalculationDTO(null, 9000, "00000", "Baden-Württemberg", VehicleType.SUV, null, null)
+        };
+    }
+
+    @Benchmark
+    public double premium() {
+        int i = next++;
+        return PremiumRateTable.STANDARD.premium(VEHICLES[i % VEHICLES.length], REGIONS[i % REGIONS.length],
+                KILOMETERS[i & 3]);
+    }
+
+    @Benchmark
+    public int kilometerBand() {
+        return PremiumRateTable.STANDARD.kilometerBand(KILOMETERS[next++ & 3]);
+    }
+
+    @Benchmark
+    public InsuranceCalculationDTO quote() {
+        return service.quote(quotes[next++ & 3]);
+    }
+}
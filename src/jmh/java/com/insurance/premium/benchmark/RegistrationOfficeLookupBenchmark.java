@@ -0,0 +1,27 @@
+package com.insurance.premium.benchmark;
+
+import com.insurance.premium.enums.BundeslandISO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Auflösung der Zulassungsstelle über {@link BundeslandISO#fromBundesland(String)}
+ * für exakte Namen, abweichende Schreibweisen, ISO-Codes und unbekannte Eingaben.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationOfficeLookupBenchmark {
+
+    @Param({"Baden-Württemberg", "baden wuerttemberg", "DE-BY", "Atlantis"})
+    public String registrationOffice;
+
+    @Benchmark
+    public BundeslandISO fromBundesland() {
+        return BundeslandISO.fromBundesland(registrationOffice);
+    }
+}
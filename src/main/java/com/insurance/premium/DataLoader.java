@@ -1,14 +1,13 @@
 package com.insurance.premium;
 
+import com.insurance.premium.config.RegionDataProperties;
 import com.insurance.premium.service.RegionDataService;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
 /**
  * Diese Komponente lädt initiale Daten in die Anwendung, sobald sie gestartet wird.
  * Sie implementiert das `ApplicationRunner`-Interface, das eine Ausführung nach dem Start der Anwendung ermöglicht.
@@ -17,25 +16,34 @@ import java.nio.file.Paths;
 public class DataLoader implements ApplicationRunner {
 
     private final RegionDataService regionDataService;
+    private final RegionDataProperties regionDataProperties;
 
     /**
      * Konstruktor zur Injektion des RegionDataService.
      *
      * @param regionDataService Der Service zum Verarbeiten von Regionendaten.
+     * @param regionDataProperties Die Einstellungen für den Import der Regionendaten.
      */
-    public DataLoader(RegionDataService regionDataService) {
+    public DataLoader(RegionDataService regionDataService, RegionDataProperties regionDataProperties) {
         this.regionDataService = regionDataService;
+        this.regionDataProperties = regionDataProperties;
     }
 
     /**
      * Diese Methode wird nach dem Start der Anwendung ausgeführt und lädt Regionendaten aus einer CSV-Datei.
+     * Die Datei wird als Stream vom Klassenpfad gelesen und funktioniert daher auch aus dem ausführbaren Jar.
+     * Im Modus `sync` werden nur Änderungen gegenüber dem zuletzt importierten Stand übernommen.
      *
      * @param args Die Anwendungsargumente, die beim Starten übergeben werden.
      * @throws Exception Wenn ein Fehler beim Laden der CSV-Datei auftritt.
      */
     @Override
     public void run(ApplicationArguments args) throws Exception {
-        Path filePath = Paths.get(new ClassPathResource("data/postcodes.csv").getURI());
-        regionDataService.bulkInsertFromCSV(filePath);
+        Resource postcodes = new ClassPathResource("data/postcodes.csv");
+        if (regionDataProperties.importMode() == RegionDataProperties.ImportMode.SYNC) {
+            regionDataService.syncFromCSV(postcodes);
+        } else {
+            regionDataService.bulkInsertFromCSV(postcodes);
+        }
     }
 }
@@ -2,12 +2,14 @@ package com.insurance.premium;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Die Hauptklasse der Insurance Premium Application.
  * Dies ist der Einstiegspunkt der Spring Boot-Anwendung.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class PremiumApplication {
 
     /**
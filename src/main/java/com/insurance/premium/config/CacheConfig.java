@@ -0,0 +1,18 @@
+package com.insurance.premium.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Aktiviert das Caching von Versicherungsberechnungen.
+ * Größe und Lebensdauer des Caffeine-Caches werden unter `spring.cache.caffeine.spec` konfiguriert.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Der Name des Caches für einzelne Versicherungsberechnungen, nach ID.
+     */
+    public static final String INSURANCE_CALCULATIONS = "insuranceCalculations";
+}
@@ -0,0 +1,72 @@
+package com.insurance.premium.config;
+
+import com.insurance.premium.enums.BundeslandISO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration der anwendungsspezifischen Metriken.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wertet {@link io.micrometer.core.annotation.Timed} an Spring-Beans aus, etwa an den Operationen
+     * des InsuranceCalculationService. Die Perzentil-Histogramme werden in der application.yml aktiviert.
+     *
+     * @param registry Die MeterRegistry, in der die Timer registriert werden.
+     * @return Der Aspekt für `@Timed`.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Stellt die Zähler der Zulassungsstellen-Auflösung als Metrik `registration.office.lookups` bereit.
+     *
+     * @return Der MeterBinder für die Zähler aus {@link BundeslandISO}.
+     */
+    @Bean
+    public MeterBinder registrationOfficeLookupMetrics() {
+        return registry -> {
+            FunctionCounter.builder("registration.office.lookups", BundeslandISO.class, iso -> BundeslandISO.lookupHits())
+                    .tag("result", "hit")
+                    .description("Registration offices resolved through the lookup index")
+                    .register(registry);
+            FunctionCounter.builder("registration.office.lookups", BundeslandISO.class, iso -> BundeslandISO.lookupMisses())
+                    .tag("result", "miss")
+                    .description("Registration offices not found in the lookup index")
+                    .register(registry);
+            FunctionCounter.builder("registration.office.fallbacks", BundeslandISO.class, iso -> BundeslandISO.fallbacks())
+                    .description("Registration offices that fell back to DE_DE")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Stellt die Trefferquote jedes Caffeine-Caches als Metrik `cache.hit.ratio` bereit.
+     * Die absoluten Treffer und Fehlschläge liefert Spring Boot bereits als `cache.gets`.
+     *
+     * @param cacheManager Der CacheManager mit den Caffeine-Caches.
+     * @return Der MeterBinder für die Trefferquoten.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                Gauge.builder("cache.hit.ratio", cache.getNativeCache(), nativeCache -> nativeCache.stats().hitRate())
+                        .tag("cache", name)
+                        .description("Share of cache lookups that were hits")
+                        .register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.insurance.premium.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Konfiguration des Profils `reactive`, in dem die Anwendung als WebFlux-Anwendung läuft.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Da Tomcat für den Servlet-Betrieb ebenfalls auf dem Klassenpfad liegt, würde Spring Boot ihn auch für WebFlux wählen.
+     * Der reaktive Betrieb läuft stattdessen auf Reactor Netty mit seiner Event-Loop.
+     *
+     * @return Die Factory für den Netty-Webserver.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * @return Die Einstellungen der JDBC-Verbindung aus `spring.datasource`.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Spring Boot legt keine DataSource an, sobald eine R2DBC-ConnectionFactory existiert. JPA und der Import der
+     * Regionsdaten brauchen sie aber weiterhin, daher wird sie hier wie im Servlet-Betrieb aus `spring.datasource` erzeugt.
+     *
+     * @param dataSourceProperties Die Einstellungen der JDBC-Verbindung.
+     * @return Die DataSource mit dem Hikari-Pool aus `spring.datasource.hikari`.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.insurance.premium.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen für den Import der Regionsdaten beim Start.
+ *
+ * @param importMode Ob die Regionsdaten bei jedem Start vollständig neu geladen oder inkrementell abgeglichen werden.
+ */
+@ConfigurationProperties(prefix = "premium.region-data")
+public record RegionDataProperties(
+        @DefaultValue("reload") ImportMode importMode
+) {
+
+    /**
+     * Die Art des Imports der Regionsdaten.
+     */
+    public enum ImportMode {
+        /**
+         * Die Datei wird bei jedem Start vollständig importiert.
+         */
+        RELOAD,
+        /**
+         * Der Import wird übersprungen, wenn sich die Prüfsumme der Datei nicht geändert hat;
+         * andernfalls werden nur die geänderten Zeilen eingefügt, aktualisiert oder gelöscht.
+         */
+        SYNC
+    }
+}
@@ -0,0 +1,70 @@
+package com.insurance.premium.config;
+
+import com.insurance.premium.snapshot.RegionSnapshot;
+import com.insurance.premium.snapshot.RegionSnapshotWriter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Stellt den beim Build erzeugten {@link RegionSnapshot} bereit.
+ * Liegt der Snapshot als Datei auf dem Klassenpfad, wird er direkt eingeblendet. Aus einem Jar heraus wird er einmalig
+ * in das temporäre Verzeichnis extrahiert; der Dateiname enthält eine Prüfsumme, sodass alle Prozesse eines Hosts
+ * dieselbe Datei und damit denselben Page-Cache nutzen. Fehlt der Snapshot (z. B. beim Start aus der IDE ohne
+ * Maven-Build), wird er aus `data/postcodes.csv` erzeugt.
+ */
+@Configuration
+@Log4j2
+public class RegionSnapshotConfig {
+
+    private static final String POSTCODES_RESOURCE = "data/postcodes.csv";
+
+    /**
+     * @return Der eingeblendete Regions-Snapshot.
+     * @throws IOException Wenn der Snapshot nicht gelesen oder erzeugt werden kann.
+     */
+    @Bean
+    public RegionSnapshot regionSnapshot() throws IOException {
+        Resource snapshot = new ClassPathResource(RegionSnapshot.RESOURCE);
+        if (!snapshot.exists()) {
+            log.warn("{} not found on the classpath, building it from {}", RegionSnapshot.RESOURCE, POSTCODES_RESOURCE);
+            Path target = Files.createTempFile("postcodes", ".snapshot");
+            target.toFile().deleteOnExit();
+            try (InputStream csv = new ClassPathResource(POSTCODES_RESOURCE).getInputStream()) {
+                RegionSnapshotWriter.write(csv, target);
+            }
+            return RegionSnapshot.open(target);
+        }
+        if (snapshot.isFile()) {
+            return RegionSnapshot.open(snapshot.getFile().toPath());
+        }
+        return RegionSnapshot.open(extract(snapshot));
+    }
+
+    private static Path extract(Resource snapshot) throws IOException {
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+        Path temp = Files.createTempFile(directory, "postcodes", ".tmp");
+        CRC32 checksum = new CRC32();
+        try (InputStream in = new CheckedInputStream(snapshot.getInputStream(), checksum)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path target = directory.resolve("postcodes-%08x.snapshot".formatted(checksum.getValue()));
+        if (Files.exists(target) && Files.size(target) == Files.size(temp)) {
+            Files.delete(temp);
+        } else {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        log.info("Extracted {} to {}", RegionSnapshot.RESOURCE, target);
+        return target;
+    }
+}
@@ -0,0 +1,23 @@
+package com.insurance.premium.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen für die Neubewertung der gespeicherten Versicherungsberechnungen.
+ *
+ * @param chunkSize        Die Anzahl der Berechnungen pro Block; ein Block wird in einer Transaktion geschrieben.
+ * @param parallelism      Die Anzahl der Threads, auf denen die Prämien berechnet werden; `0` steht für die Anzahl der Prozessoren.
+ * @param resumeOnStartup  Ob eine beim Herunterfahren oder Absturz unterbrochene Neubewertung beim Start fortgesetzt wird.
+ * @param progressInterval Der Abstand, in dem der Fortschritt protokolliert wird.
+ */
+@ConfigurationProperties(prefix = "premium.repricing")
+public record RepricingProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("0") int parallelism,
+        @DefaultValue("true") boolean resumeOnStartup,
+        @DefaultValue("10s") Duration progressInterval
+) {
+}
@@ -0,0 +1,29 @@
+package com.insurance.premium.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Einstellungen für die Bereinigung alter Versicherungsberechnungen.
+ *
+ * @param enabled         Ob die Bereinigung regelmäßig im Hintergrund läuft; über den Actuator-Endpunkt kann sie auch
+ *                        ohne diese Einstellung angestoßen werden.
+ * @param maxAge          Wie lange Berechnungen ab `created_at` aufbewahrt werden, etwa `24m` oder `2y`.
+ * @param interval        Der Abstand zwischen zwei Läufen.
+ * @param chunkSize       Die Anzahl der Zeilen, die höchstens in einer Transaktion gelöscht werden.
+ * @param chunkPause      Die Pause zwischen zwei Blöcken, damit Datenbank und Replikation nachkommen.
+ * @param partitionsAhead Für wie viele kommende Monate Partitionen angelegt werden, falls die Tabelle partitioniert ist.
+ */
+@ConfigurationProperties(prefix = "premium.retention")
+public record RetentionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2y") Period maxAge,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("50ms") Duration chunkPause,
+        @DefaultValue("3") int partitionsAhead
+) {
+}
@@ -0,0 +1,17 @@
+package com.insurance.premium.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen für die Tarifdatei, aus der die Prämienfaktoren geladen werden.
+ *
+ * @param location Der Ort der Tarifdatei als Spring-Resource, etwa `classpath:...` oder `file:...`.
+ * @param watch    Ob die Tarifdatei bei Änderungen automatisch neu geladen wird; nur möglich, wenn sie im Dateisystem liegt.
+ */
+@ConfigurationProperties(prefix = "premium.tariff")
+public record TariffProperties(
+        @DefaultValue("classpath:tariff/tariff.json") String location,
+        @DefaultValue("true") boolean watch
+) {
+}
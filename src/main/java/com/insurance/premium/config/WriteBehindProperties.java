@@ -0,0 +1,25 @@
+package com.insurance.premium.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen für das asynchrone Speichern von Versicherungsberechnungen (Write-Behind).
+ *
+ * @param enabled       Ob Berechnungen asynchron über die Warteschlange gespeichert werden.
+ * @param capacity      Die maximale Anzahl wartender Berechnungen.
+ * @param batchSize     Die maximale Anzahl Berechnungen pro JDBC-Batch.
+ * @param flushInterval Die maximale Wartezeit, bis ein nicht voller Batch geschrieben wird.
+ * @param offerTimeout  Wie lange ein Aufrufer bei voller Warteschlange wartet, bevor die Anfrage abgelehnt wird.
+ */
+@ConfigurationProperties(prefix = "premium.persistence.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("1s") Duration offerTimeout
+) {
+}
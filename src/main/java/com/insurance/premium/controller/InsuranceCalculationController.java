@@ -2,6 +2,11 @@ package com.insurance.premium.controller;
 
 
 import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.service.InsuranceCalculationBatchService;
+import com.insurance.premium.service.InsuranceCalculationExportService;
+import com.insurance.premium.service.InsuranceCalculationExportService.ExportFormat;
 import com.insurance.premium.service.InsuranceCalculationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,13 +14,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.zip.CRC32;
 
 import static org.springframework.http.ResponseEntity.noContent;
 import static org.springframework.http.ResponseEntity.notFound;
@@ -23,21 +39,35 @@ import static org.springframework.http.ResponseEntity.notFound;
 
 /**
  * REST-Controller für die Verarbeitung von Versicherungsberechnungsanfragen.
+ * Im Profil `reactive` übernimmt {@link ReactiveInsuranceCalculationController} diese Endpunkte.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/insurance")
 @Tag(name = "Insurance Calculation", description = "API for calculating insurance premium")
 public class InsuranceCalculationController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final MediaType GZIP = new MediaType("application", "gzip");
+
     private InsuranceCalculationService insuranceCalculationService;
+    private InsuranceCalculationBatchService insuranceCalculationBatchService;
+    private InsuranceCalculationExportService insuranceCalculationExportService;
 
     /**
      * Konstruktor zur Injektion von Abhängigkeiten.
      *
      * @param insuranceCalculationService Service für die Logik der Versicherungsberechnung.
+     * @param insuranceCalculationBatchService Service für die Stapelverarbeitung von Versicherungsberechnungen.
+     * @param insuranceCalculationExportService Service für den Export von Versicherungsberechnungen.
      */
-    public InsuranceCalculationController(InsuranceCalculationService insuranceCalculationService) {
+    public InsuranceCalculationController(InsuranceCalculationService insuranceCalculationService,
+                                          InsuranceCalculationBatchService insuranceCalculationBatchService,
+                                          InsuranceCalculationExportService insuranceCalculationExportService) {
         this.insuranceCalculationService = insuranceCalculationService;
+        this.insuranceCalculationBatchService = insuranceCalculationBatchService;
+        this.insuranceCalculationExportService = insuranceCalculationExportService;
     }
 
     /**
@@ -57,36 +87,166 @@ public class InsuranceCalculationController {
                 .map(ResponseEntity::ok)
                 .orElseThrow();
     }
+
+    /**
+     * Endpoint zur Berechnung eines Angebots, ohne es zu speichern.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object mit den Parametern für die Versicherungsberechnung.
+     * @return Das Angebot mit der berechneten Versicherungsprämie.
+     */
+    @PostMapping("/quote")
+    @Operation(summary = "Calculate an Insurance quote without storing it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calculating the quote was successful", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<InsuranceCalculationDTO> quote(@RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return ResponseEntity.ok(insuranceCalculationService.quote(insuranceCalculationDTO));
+    }
+
+    /**
+     * Endpoint zum Speichern eines angenommenen Angebots.
+     *
+     * @param insuranceCalculationDTO Das Angebot, wie es von `/insurance/quote` geliefert wurde.
+     * @return Die gespeicherte Versicherung.
+     */
+    @PostMapping("/quote/commit")
+    @Operation(summary = "Store a previously calculated Insurance quote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Storing the quote was successful", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "The premium has changed since the quote was calculated")
+    })
+    public ResponseEntity<InsuranceCalculationDTO> commitQuote(@RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.commitQuote(insuranceCalculationDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Endpoint zur Berechnung vieler Versicherungen in einem Aufruf.
+     * Die Eingabe kann ein JSON-Array oder NDJSON sein; die Ergebnisse werden als NDJSON gestreamt, sobald sie gespeichert sind.
+     * Bricht der Stapel ab, endet der Strom mit einem Fehlerdatensatz statt mit einem Fehlerstatus.
+     *
+     * @param request Die HTTP-Anfrage, deren Body gestreamt gelesen wird.
+     * @return Die berechneten Versicherungsprämien als NDJSON-Strom.
+     */
+    @PostMapping(value = "/calculate/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Calculate many new Insurances from a JSON array or NDJSON stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calculated Insurances streamed as NDJSON; an aborted batch ends with an {\"error\", \"processed\"} record", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<StreamingResponseBody> calculateInsurances(HttpServletRequest request) {
+        StreamingResponseBody body = output -> insuranceCalculationBatchService.calculate(request.getInputStream(), output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
-     * Endpunkt zum Abrufen aller Versicherungsberechnungen.
+     * Endpunkt zum seitenweisen Abrufen von Versicherungsberechnungen per Keyset-Paginierung.
+     * Gibt es eine weitere Seite, enthält die Antwort einen `Link`-Header mit `rel="next"`.
      *
-     * @return Liste aller Versicherungsberechnungen.
+     * @param afterId            Die ID der letzten Berechnung der vorherigen Seite; fehlt sie, wird die erste Seite geliefert.
+     * @param limit              Die maximale Anzahl der Berechnungen pro Seite, höchstens {@value #MAX_PAGE_SIZE}.
+     * @param vehicleType        Optionaler Filter auf den Fahrzeugtyp.
+     * @param registrationOffice Optionaler Filter auf die Zulassungsstelle.
+     * @param postcode           Optionaler Filter auf die Postleitzahl.
+     * @param minPremium         Optionale Untergrenze der Prämie.
+     * @param maxPremium         Optionale Obergrenze der Prämie.
+     * @return Eine Seite von Versicherungsberechnungen, aufsteigend nach ID sortiert.
      */
     @GetMapping
-    @Operation(summary = "Get all calculated Insurances")
+    @Operation(summary = "Get calculated Insurances page by page, ordered by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of all calculated Insurances", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class)))
+            @ApiResponse(responseCode = "200", description = "One page of calculated Insurances; the Link header points to the next page", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or limit")
     })
-    public ResponseEntity<List<InsuranceCalculationDTO>> getAll() {
-        var calculatedInsurances = insuranceCalculationService.getAll();
-        return ResponseEntity.ok(calculatedInsurances);
+    public ResponseEntity<List<InsuranceCalculationDTO>> getAll(@RequestParam(required = false) Long afterId,
+                                                                @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                                @RequestParam(required = false) VehicleType vehicleType,
+                                                                @RequestParam(required = false) String registrationOffice,
+                                                                @RequestParam(required = false) String postcode,
+                                                                @RequestParam(required = false) Double minPremium,
+                                                                @RequestParam(required = false) Double maxPremium) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        var filter = new InsuranceCalculationFilter(vehicleType, registrationOffice, postcode, minPremium, maxPremium);
+        var page = insuranceCalculationService.getPage(filter, afterId, limit);
+
+        var response = ResponseEntity.ok();
+        if (page.nextAfterId() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", page.nextAfterId())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Endpunkt zum Export aller Versicherungsberechnungen als CSV oder NDJSON.
+     * Die Zeilen werden direkt aus der Datenbank in die Antwort gestreamt, optional als gzip-Datei.
+     *
+     * @param format Das Exportformat, `csv` oder `ndjson`.
+     * @param gzip   Ob die Antwort als gzip-Datei (`application/gzip`) geliefert wird.
+     * @return Alle Versicherungsberechnungen als Datei-Download.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all calculated Insurances as CSV or NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All calculated Insurances streamed in the requested format"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Mit gzip wird die komprimierte Datei selbst ausgeliefert (kein Content-Encoding), damit Clients sie nicht
+        // transparent entpacken und unkomprimiert unter dem Namen mit .gz speichern.
+        String fileName = "insurance-calculations." + format.toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? GZIP
+                : exportFormat == ExportFormat.CSV ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(output -> insuranceCalculationExportService.export(exportFormat, gzip, output));
     }
 
     /**
      * Endpunkt zum Abrufen einer berechneten Versicherung nach ID.
+     * Die Antwort enthält einen ETag; stimmt er mit `If-None-Match` überein, wird `304 Not Modified` ohne Body geliefert.
      *
-     * @param id Die ID der berechneten Versicherung.
+     * @param id      Die ID der berechneten Versicherung.
+     * @param request Die Anfrage, deren `If-None-Match`-Header geprüft wird.
      * @return Die berechnete Versicherung, falls vorhanden.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get a calculated Insurance by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "calculated Insurance found", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "304", description = "calculated Insurance not modified since the given ETag"),
             @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
     })
-    public ResponseEntity<InsuranceCalculationDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<InsuranceCalculationDTO> getById(@PathVariable Long id, WebRequest request) {
         return insuranceCalculationService.getById(id)
-                .map(ResponseEntity::ok)
+                .map(insuranceCalculationDTO -> {
+                    String eTag = eTag(insuranceCalculationDTO);
+                    if (request.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<InsuranceCalculationDTO>build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).body(insuranceCalculationDTO);
+                })
                 .orElseGet(() -> notFound().build());
     }
 
@@ -109,6 +269,26 @@ public class InsuranceCalculationController {
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * Endpunkt zur Teilaktualisierung einer berechneten Versicherung nach ID.
+     * Nur die im Body gesetzten Felder werden geändert; die Prämie wird anschließend neu berechnet.
+     *
+     * @param id                      Die ID der zu aktualisierenden Versicherung.
+     * @param insuranceCalculationDTO Data Transfer Object, in dem nur die zu ändernden Felder gesetzt sind.
+     * @return Die aktualisierte Versicherung, falls vorhanden.
+     */
+    @PatchMapping("/{id}")
+    @Operation(summary = "Change individual fields of a calculated Insurance by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "calculated Insurance updated successfully", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
+    })
+    public ResponseEntity<InsuranceCalculationDTO> patch(@PathVariable Long id, @RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.patch(id, insuranceCalculationDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
     /**
      * Endpunkt zum Löschen einer berechneten Versicherung nach ID.
      *
@@ -126,4 +306,20 @@ public class InsuranceCalculationController {
         return noContent().build();
     }
 
+    /**
+     * Berechnet einen ETag aus allen Feldern einer Versicherungsberechnung. Der Wert hängt nur vom Inhalt ab
+     * und ist daher über Neustarts und Instanzen hinweg stabil.
+     *
+     * @param insuranceCalculationDTO Die Versicherungsberechnung.
+     * @return Der ETag in Anführungszeichen.
+     */
+    static String eTag(InsuranceCalculationDTO insuranceCalculationDTO) {
+        CRC32 checksum = new CRC32();
+        checksum.update((insuranceCalculationDTO.id() + "|" + insuranceCalculationDTO.annualKilometers() + "|"
+                + insuranceCalculationDTO.postcode() + "|" + insuranceCalculationDTO.registrationOffice() + "|"
+                + insuranceCalculationDTO.vehicleType() + "|" + insuranceCalculationDTO.calculatedPremium() + "|"
+                + insuranceCalculationDTO.tariffVersion())
+                .getBytes(StandardCharsets.UTF_8));
+        return "\"" + Long.toHexString(checksum.getValue()) + "\"";
+    }
 }
@@ -0,0 +1,57 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.exception.WriteBehindQueueFullException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Beantwortet Überlast mit `503 Service Unavailable` und `Retry-After` statt mit einem allgemeinen 500.
+ * Überlast heißt: Es war innerhalb des Connection-Timeouts keine Datenbankverbindung aus dem Pool zu bekommen,
+ * oder die Write-Behind-Warteschlange blieb bis zum Offer-Timeout voll.
+ * So lassen sich abgewiesene Anfragen in Clients und Alarmen von Fehlern unterscheiden.
+ */
+@RestControllerAdvice
+@Log4j2
+public class OverloadExceptionHandler {
+
+    /**
+     * Die Sekunden, nach denen ein Client es erneut versuchen soll.
+     */
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Beim Beginn einer Transaktion oder beim direkten JDBC-Zugriff war keine Verbindung zu bekommen.
+     *
+     * @param e Die Ausnahme mit der Ursache aus dem Connection-Pool.
+     * @return Eine leere Antwort mit Status 503 und `Retry-After`.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Void> handleConnectionUnavailable(RuntimeException e) {
+        log.warn("Rejecting request, no database connection available: {}", e.getMessage());
+        return serviceUnavailable();
+    }
+
+    /**
+     * Die Write-Behind-Warteschlange hat die Berechnung nicht angenommen.
+     *
+     * @param e Die Ausnahme der vollen Warteschlange.
+     * @return Eine leere Antwort mit Status 503 und `Retry-After`.
+     */
+    @ExceptionHandler(WriteBehindQueueFullException.class)
+    public ResponseEntity<Void> handleWriteBehindQueueFull(WriteBehindQueueFullException e) {
+        log.warn("Rejecting request: {}", e.getMessage());
+        return serviceUnavailable();
+    }
+
+    private static ResponseEntity<Void> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.service.ReactiveInsuranceCalculationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.http.ResponseEntity.notFound;
+
+/**
+ * Reaktiver REST-Controller für die Versicherungsberechnung im Profil `reactive`.
+ * Er bietet dieselben Endpunkte unter `/insurance` wie {@link InsuranceCalculationController}, mit Ausnahme
+ * der Stapelverarbeitung und des Exports, die auf blockierendem JDBC-Streaming aufbauen.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/insurance")
+@Tag(name = "Insurance Calculation", description = "API for calculating insurance premium")
+public class ReactiveInsuranceCalculationController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveInsuranceCalculationService insuranceCalculationService;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param insuranceCalculationService Reaktiver Service für die Logik der Versicherungsberechnung.
+     */
+    public ReactiveInsuranceCalculationController(ReactiveInsuranceCalculationService insuranceCalculationService) {
+        this.insuranceCalculationService = insuranceCalculationService;
+    }
+
+    /**
+     * Endpoint zur Berechnung der Versicherung basierend auf den bereitgestellten Daten.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object mit den Parametern für die Versicherungsberechnung.
+     * @return Die berechnete Versicherungsprämie.
+     */
+    @PostMapping("/calculate")
+    @Operation(summary = "Calculate a new Insurance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calculating a new Insurance was successful", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> calculateInsurance(@RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.calculateInsurance(insuranceCalculationDTO)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint zur Berechnung eines Angebots, ohne es zu speichern.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object mit den Parametern für die Versicherungsberechnung.
+     * @return Das Angebot mit der berechneten Versicherungsprämie.
+     */
+    @PostMapping("/quote")
+    @Operation(summary = "Calculate an Insurance quote without storing it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calculating the quote was successful", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> quote(@RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.quote(insuranceCalculationDTO)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint zum Speichern eines angenommenen Angebots.
+     *
+     * @param insuranceCalculationDTO Das Angebot, wie es von `/insurance/quote` geliefert wurde.
+     * @return Die gespeicherte Versicherung.
+     */
+    @PostMapping("/quote/commit")
+    @Operation(summary = "Store a previously calculated Insurance quote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Storing the quote was successful", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "The premium has changed since the quote was calculated")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> commitQuote(@RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.commitQuote(insuranceCalculationDTO)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Endpunkt zum seitenweisen Abrufen von Versicherungsberechnungen per Keyset-Paginierung.
+     * Gibt es eine weitere Seite, enthält die Antwort einen `Link`-Header mit `rel="next"`.
+     *
+     * @param afterId            Die ID der letzten Berechnung der vorherigen Seite; fehlt sie, wird die erste Seite geliefert.
+     * @param limit              Die maximale Anzahl der Berechnungen pro Seite, höchstens {@value #MAX_PAGE_SIZE}.
+     * @param vehicleType        Optionaler Filter auf den Fahrzeugtyp.
+     * @param registrationOffice Optionaler Filter auf die Zulassungsstelle.
+     * @param postcode           Optionaler Filter auf die Postleitzahl.
+     * @param minPremium         Optionale Untergrenze der Prämie.
+     * @param maxPremium         Optionale Obergrenze der Prämie.
+     * @param exchange           Die Anfrage, aus deren URI der Link auf die nächste Seite gebildet wird.
+     * @return Eine Seite von Versicherungsberechnungen, aufsteigend nach ID sortiert.
+     */
+    @GetMapping
+    @Operation(summary = "Get calculated Insurances page by page, ordered by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of calculated Insurances; the Link header points to the next page", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or limit")
+    })
+    public Mono<ResponseEntity<List<InsuranceCalculationDTO>>> getAll(@RequestParam(required = false) Long afterId,
+                                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                                      @RequestParam(required = false) VehicleType vehicleType,
+                                                                      @RequestParam(required = false) String registrationOffice,
+                                                                      @RequestParam(required = false) String postcode,
+                                                                      @RequestParam(required = false) Double minPremium,
+                                                                      @RequestParam(required = false) Double maxPremium,
+                                                                      ServerWebExchange exchange) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        var filter = new InsuranceCalculationFilter(vehicleType, registrationOffice, postcode, minPremium, maxPremium);
+        return insuranceCalculationService.getPage(filter, afterId, limit)
+                .map(page -> {
+                    var response = ResponseEntity.ok();
+                    if (page.nextAfterId() != null) {
+                        String next = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                                .replaceQueryParam("afterId", page.nextAfterId())
+                                .replaceQueryParam("limit", limit)
+                                .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                    }
+                    return response.body(page.items());
+                });
+    }
+
+    /**
+     * Endpunkt zum Abrufen einer berechneten Versicherung nach ID.
+     * Die Antwort enthält einen ETag; stimmt er mit `If-None-Match` überein, wird `304 Not Modified` ohne Body geliefert.
+     *
+     * @param id       Die ID der berechneten Versicherung.
+     * @param exchange Die Anfrage, deren `If-None-Match`-Header geprüft wird.
+     * @return Die berechnete Versicherung, falls vorhanden.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a calculated Insurance by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "calculated Insurance found", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "304", description = "calculated Insurance not modified since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> getById(@PathVariable Long id, ServerWebExchange exchange) {
+        return insuranceCalculationService.getById(id)
+                .map(insuranceCalculationDTO -> {
+                    String eTag = InsuranceCalculationController.eTag(insuranceCalculationDTO);
+                    if (exchange.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<InsuranceCalculationDTO>build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).body(insuranceCalculationDTO);
+                })
+                .defaultIfEmpty(notFound().build());
+    }
+
+    /**
+     * Endpunkt zur Aktualisierung einer berechneten Versicherung nach ID.
+     *
+     * @param id                      Die ID der zu aktualisierenden Versicherung.
+     * @param insuranceCalculationDTO Data Transfer Object mit den aktualisierten Versicherungsdaten.
+     * @return Die aktualisierte Versicherung, falls vorhanden.
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Update a calculated Insurance by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "calculated Insurance updated successfully", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> update(@PathVariable Long id, @RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.update(id, insuranceCalculationDTO)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Endpunkt zur Teilaktualisierung einer berechneten Versicherung nach ID.
+     *
+     * @param id                      Die ID der zu aktualisierenden Versicherung.
+     * @param insuranceCalculationDTO Data Transfer Object, in dem nur die zu ändernden Felder gesetzt sind.
+     * @return Die aktualisierte Versicherung, falls vorhanden.
+     */
+    @PatchMapping("/{id}")
+    @Operation(summary = "Change individual fields of a calculated Insurance by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "calculated Insurance updated successfully", content = @Content(schema = @Schema(implementation = InsuranceCalculationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
+    })
+    public Mono<ResponseEntity<InsuranceCalculationDTO>> patch(@PathVariable Long id, @RequestBody InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insuranceCalculationService.patch(id, insuranceCalculationDTO)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Endpunkt zum Löschen einer berechneten Versicherung nach ID.
+     *
+     * @param id Die ID der zu löschenden Versicherung.
+     * @return Eine leere Antwort, falls erfolgreich gelöscht.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a calculated Insurance by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "calculated Insurance deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "calculated Insurance not found")
+    })
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return insuranceCalculationService.delete(id)
+                .then(Mono.just(noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.NearestRegionDTO;
+import com.insurance.premium.dto.RegionSuggestionDTO;
+import com.insurance.premium.service.NearestRegionIndex;
+import com.insurance.premium.service.RegionAutocompleteIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.http.ResponseEntity.notFound;
+
+/**
+ * REST-Controller für Abfragen zu Regionen, die vollständig aus In-Memory-Indizes beantwortet werden.
+ */
+@RestController
+@RequestMapping("/regions")
+@Tag(name = "Regions", description = "API for looking up regions")
+public class RegionController {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final NearestRegionIndex nearestRegionIndex;
+    private final RegionAutocompleteIndex regionAutocompleteIndex;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param nearestRegionIndex      Räumlicher Index für die Suche nach der nächstgelegenen Region.
+     * @param regionAutocompleteIndex Index für die Autovervollständigung von Postleitzahlen und Städten.
+     */
+    public RegionController(NearestRegionIndex nearestRegionIndex, RegionAutocompleteIndex regionAutocompleteIndex) {
+        this.nearestRegionIndex = nearestRegionIndex;
+        this.regionAutocompleteIndex = regionAutocompleteIndex;
+    }
+
+    /**
+     * Endpunkt zur Ermittlung der nächstgelegenen Region zu einer GPS-Koordinate.
+     *
+     * @param latitude  Der Breitengrad in Grad, zwischen -90 und 90.
+     * @param longitude Der Längengrad in Grad, zwischen -180 und 180.
+     * @return Die nächstgelegene Region mit Postleitzahl, Bundesland und Entfernung.
+     */
+    @GetMapping("/nearest")
+    @Operation(summary = "Find the region closest to a GPS coordinate")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Closest region found", content = @Content(schema = @Schema(implementation = NearestRegionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinate"),
+            @ApiResponse(responseCode = "404", description = "No regions available")
+    })
+    public ResponseEntity<NearestRegionDTO> nearest(@RequestParam double latitude, @RequestParam double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return nearestRegionIndex.findNearest(latitude, longitude)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> notFound().build());
+    }
+
+    /**
+     * Endpunkt für die Autovervollständigung von Postleitzahlen und Städten.
+     *
+     * @param q     Der Anfang der Postleitzahl oder des Städtenamens.
+     * @param limit Die maximale Anzahl der Vorschläge, höchstens {@value #MAX_SUGGESTIONS}.
+     * @return Die Vorschläge, aufsteigend nach Postleitzahl bzw. Städtename sortiert.
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Suggest postcodes or cities starting with the given prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching postcodes or cities", content = @Content(schema = @Schema(implementation = RegionSuggestionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty prefix or invalid limit")
+    })
+    public ResponseEntity<List<RegionSuggestionDTO>> autocomplete(@RequestParam String q,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(regionAutocompleteIndex.suggest(q, limit));
+    }
+}
@@ -0,0 +1,51 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.RepricingStatusDTO;
+import com.insurance.premium.service.RepricingJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpunkt `repricing` zur Neubewertung der gespeicherten Versicherungsberechnungen.
+ * `GET /actuator/repricing` liefert den Fortschritt mit Durchsatz und Restdauer, `POST /actuator/repricing`
+ * startet die Neubewertung mit dem aktiven Tarif oder setzt eine unterbrochene fort.
+ */
+@Component
+@Endpoint(id = "repricing")
+public class RepricingEndpoint {
+
+    private final RepricingJob repricingJob;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param repricingJob Die Neubewertung der gespeicherten Berechnungen.
+     */
+    public RepricingEndpoint(RepricingJob repricingJob) {
+        this.repricingJob = repricingJob;
+    }
+
+    /**
+     * @return Der Fortschritt der laufenden oder der zuletzt beendeten Neubewertung.
+     */
+    @ReadOperation
+    public RepricingStatusDTO status() {
+        return repricingJob.status();
+    }
+
+    /**
+     * Startet die Neubewertung im Hintergrund. Läuft bereits eine, antwortet der Endpunkt mit 409 und ihrem Fortschritt.
+     *
+     * @return Der Fortschritt der Neubewertung.
+     */
+    @WriteOperation
+    public WebEndpointResponse<RepricingStatusDTO> start() {
+        boolean started = repricingJob.startRepricing();
+        return new WebEndpointResponse<>(repricingJob.status(),
+                started ? HttpStatus.ACCEPTED.value() : HttpStatus.CONFLICT.value());
+    }
+}
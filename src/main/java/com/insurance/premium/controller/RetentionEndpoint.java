@@ -0,0 +1,51 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.RetentionStatusDTO;
+import com.insurance.premium.service.RetentionJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpunkt `retention` für die Bereinigung alter Versicherungsberechnungen.
+ * `GET /actuator/retention` liefert den Stand des letzten Laufs, `POST /actuator/retention` startet sofort
+ * einen Lauf im Hintergrund.
+ */
+@Component
+@Endpoint(id = "retention")
+public class RetentionEndpoint {
+
+    private final RetentionJob retentionJob;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param retentionJob Die Bereinigung alter Berechnungen.
+     */
+    public RetentionEndpoint(RetentionJob retentionJob) {
+        this.retentionJob = retentionJob;
+    }
+
+    /**
+     * @return Der Stand des laufenden oder des zuletzt beendeten Laufs.
+     */
+    @ReadOperation
+    public RetentionStatusDTO status() {
+        return retentionJob.status();
+    }
+
+    /**
+     * Startet einen Lauf im Hintergrund. Läuft bereits einer, antwortet der Endpunkt mit 409 und dessen Stand.
+     *
+     * @return Der Stand des Laufs.
+     */
+    @WriteOperation
+    public WebEndpointResponse<RetentionStatusDTO> purge() {
+        boolean started = retentionJob.startPurge();
+        return new WebEndpointResponse<>(retentionJob.status(),
+                started ? HttpStatus.ACCEPTED.value() : HttpStatus.CONFLICT.value());
+    }
+}
@@ -0,0 +1,57 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.TariffDTO;
+import com.insurance.premium.exception.InvalidTariffException;
+import com.insurance.premium.service.TariffEngine;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpunkt `tariff` zur Verwaltung des Tarifs.
+ * `GET /actuator/tariff` liefert die aktive Version, `POST /actuator/tariff` lädt die Tarifdatei neu.
+ * Als Actuator-Endpunkt liegt er neben den übrigen Betriebsendpunkten und ist nur erreichbar, wenn er über
+ * `management.endpoints.web.exposure.include` freigegeben ist.
+ */
+@Component
+@Endpoint(id = "tariff")
+public class TariffEndpoint {
+
+    private final TariffEngine tariffEngine;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param tariffEngine Die Verwaltung des aktiven Tarifs.
+     */
+    public TariffEndpoint(TariffEngine tariffEngine) {
+        this.tariffEngine = tariffEngine;
+    }
+
+    /**
+     * @return Der aktive Tarif.
+     */
+    @ReadOperation
+    public TariffDTO tariff() {
+        return new TariffDTO(tariffEngine.current().version(), tariffEngine.location(), null);
+    }
+
+    /**
+     * Lädt die Tarifdatei neu. Ist sie ungültig, bleibt der bisherige Tarif aktiv und die Antwort hat den Status 422
+     * mit dem Grund der Ablehnung.
+     *
+     * @return Der danach aktive Tarif.
+     */
+    @WriteOperation
+    public WebEndpointResponse<TariffDTO> reload() {
+        try {
+            return new WebEndpointResponse<>(new TariffDTO(tariffEngine.reload().version(), tariffEngine.location(), null));
+        } catch (InvalidTariffException e) {
+            return new WebEndpointResponse<>(new TariffDTO(tariffEngine.current().version(), tariffEngine.location(), e.getMessage()),
+                    HttpStatus.UNPROCESSABLE_ENTITY.value());
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package com.insurance.premium.dto;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.insurance.premium.enums.VehicleType;
 
 /**
  * Data Transfer Object (DTO) für die Berechnung der Versicherungsprämie.
  * Enthält alle notwendigen Informationen, um eine Prämienberechnung durchzuführen.
+ * JSON wird über {@link InsuranceCalculationDTOSerializer} und {@link InsuranceCalculationDTODeserializer}
+ * gestreamt gelesen und geschrieben statt über die reflektive Record-Bindung.
+ * `tariffVersion` ist die Version des Tarifs, mit dem die Prämie berechnet wurde; in Anfragen wird sie ignoriert.
  */
+@JsonSerialize(using = InsuranceCalculationDTOSerializer.class)
+@JsonDeserialize(using = InsuranceCalculationDTODeserializer.class)
 public record InsuranceCalculationDTO(
         Long id,
         Integer annualKilometers,
         String postcode,
         String registrationOffice,
-        @JsonDeserialize(using = VehicleTypeDeserializer.class) VehicleType vehicleType,
-        Double calculatedPremium
+        VehicleType vehicleType,
+        Double calculatedPremium,
+        String tariffVersion
 ) {
+
+    /**
+     * Übernimmt die gesetzten Eingabefelder aus einer Teilaktualisierung; fehlende Felder behalten ihren bisherigen Wert.
+     * ID, Prämie und Tarifversion werden nicht übernommen, da sie nicht vom Client vorgegeben werden.
+     *
+     * @param changes Die Teilaktualisierung, in der nur die zu ändernden Felder gesetzt sind.
+     * @return Die Berechnung mit den übernommenen Änderungen.
+     */
+    public InsuranceCalculationDTO withChanges(InsuranceCalculationDTO changes) {
+        return new InsuranceCalculationDTO(
+                id,
+                changes.annualKilometers() != null ? changes.annualKilometers() : annualKilometers,
+                changes.postcode() != null ? changes.postcode() : postcode,
+                changes.registrationOffice() != null ? changes.registrationOffice() : registrationOffice,
+                changes.vehicleType() != null ? changes.vehicleType() : vehicleType,
+                calculatedPremium,
+                tariffVersion
+        );
+    }
 }
@@ -0,0 +1,91 @@
+package com.insurance.premium.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.insurance.premium.enums.VehicleType;
+
+import java.io.IOException;
+
+/**
+ * Streaming-Deserializer für {@link InsuranceCalculationDTO}.
+ * Die Felder werden direkt aus dem JsonParser gelesen, statt über die reflektive Record-Bindung von Jackson.
+ * Der Fahrzeugtyp wird an den {@link VehicleTypeDeserializer} übergeben und so ohne String-Kopie und ohne Exception
+ * nachgeschlagen.
+ * <p>
+ * Nur Werte im erwarteten JSON-Typ werden direkt gelesen; andere Werte, etwa Zahlen als String, gehen an den
+ * DeserializationContext, damit die Konvertierungsregeln und Fehlermeldungen des ObjectMappers erhalten bleiben.
+ * Unbekannte Felder werden ebenfalls dem Context übergeben und je nach `FAIL_ON_UNKNOWN_PROPERTIES` übersprungen.
+ */
+public class InsuranceCalculationDTODeserializer extends JsonDeserializer<InsuranceCalculationDTO> {
+
+    private static final VehicleTypeDeserializer VEHICLE_TYPE = new VehicleTypeDeserializer();
+
+    @Override
+    public InsuranceCalculationDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (InsuranceCalculationDTO) ctxt.handleUnexpectedToken(InsuranceCalculationDTO.class, p);
+        }
+
+        Long id = null;
+        Integer annualKilometers = null;
+        String postcode = null;
+        String registrationOffice = null;
+        VehicleType vehicleType = null;
+        Double calculatedPremium = null;
+        String tariffVersion = null;
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            token = p.nextToken();
+            switch (field) {
+                case "id" -> id = readLong(p, token, ctxt);
+                case "annualKilometers" -> annualKilometers = readInteger(p, token, ctxt);
+                case "postcode" -> postcode = readString(p, token, ctxt);
+                case "registrationOffice" -> registrationOffice = readString(p, token, ctxt);
+                case "vehicleType" -> vehicleType = readVehicleType(p, token, ctxt);
+                case "calculatedPremium" -> calculatedPremium = readDouble(p, token, ctxt);
+                case "tariffVersion" -> tariffVersion = readString(p, token, ctxt);
+                default -> ctxt.handleUnknownProperty(p, this, InsuranceCalculationDTO.class, field);
+            }
+        }
+        return new InsuranceCalculationDTO(id, annualKilometers, postcode, registrationOffice, vehicleType, calculatedPremium, tariffVersion);
+    }
+
+    private static Long readLong(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Long.class);
+    }
+
+    private static Integer readInteger(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Integer.class);
+    }
+
+    private static Double readDouble(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getDoubleValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Double.class);
+    }
+
+    private static String readString(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+    }
+
+    private static VehicleType readVehicleType(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : VEHICLE_TYPE.deserialize(p, ctxt);
+    }
+}
@@ -0,0 +1,73 @@
+package com.insurance.premium.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.insurance.premium.enums.VehicleType;
+
+import java.io.IOException;
+
+/**
+ * Streaming-Serializer für {@link InsuranceCalculationDTO}.
+ * Schreibt die Felder in der Reihenfolge der Record-Komponenten direkt in den JsonGenerator;
+ * fehlende Werte werden wie bei der Standard-Serialisierung als `null` geschrieben.
+ * Feldnamen und Fahrzeugtypen liegen als vorab kodierte {@link SerializedString} vor und werden nur kopiert.
+ */
+public class InsuranceCalculationDTOSerializer extends JsonSerializer<InsuranceCalculationDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString ANNUAL_KILOMETERS = new SerializedString("annualKilometers");
+    private static final SerializedString POSTCODE = new SerializedString("postcode");
+    private static final SerializedString REGISTRATION_OFFICE = new SerializedString("registrationOffice");
+    private static final SerializedString VEHICLE_TYPE = new SerializedString("vehicleType");
+    private static final SerializedString CALCULATED_PREMIUM = new SerializedString("calculatedPremium");
+    private static final SerializedString TARIFF_VERSION = new SerializedString("tariffVersion");
+
+    private static final SerializedString[] VEHICLE_TYPE_NAMES = vehicleTypeNames();
+
+    @Override
+    public void serialize(InsuranceCalculationDTO value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(ID);
+        if (value.id() != null) {
+            gen.writeNumber(value.id());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(ANNUAL_KILOMETERS);
+        if (value.annualKilometers() != null) {
+            gen.writeNumber(value.annualKilometers());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(POSTCODE);
+        gen.writeString(value.postcode());
+        gen.writeFieldName(REGISTRATION_OFFICE);
+        gen.writeString(value.registrationOffice());
+        gen.writeFieldName(VEHICLE_TYPE);
+        if (value.vehicleType() != null) {
+            gen.writeString(VEHICLE_TYPE_NAMES[value.vehicleType().ordinal()]);
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(CALCULATED_PREMIUM);
+        if (value.calculatedPremium() != null) {
+            gen.writeNumber(value.calculatedPremium());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(TARIFF_VERSION);
+        gen.writeString(value.tariffVersion());
+        gen.writeEndObject();
+    }
+
+    private static SerializedString[] vehicleTypeNames() {
+        VehicleType[] vehicleTypes = VehicleType.values();
+        SerializedString[] names = new SerializedString[vehicleTypes.length];
+        for (VehicleType vehicleType : vehicleTypes) {
+            names[vehicleType.ordinal()] = new SerializedString(vehicleType.name());
+        }
+        return names;
+    }
+}
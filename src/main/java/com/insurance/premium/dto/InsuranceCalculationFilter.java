@@ -0,0 +1,21 @@
+package com.insurance.premium.dto;
+
+import com.insurance.premium.enums.VehicleType;
+
+/**
+ * Filter für die Auflistung von Versicherungsberechnungen. Nicht gesetzte Felder (`null`) schränken nicht ein.
+ *
+ * @param vehicleType        Nur Berechnungen für diesen Fahrzeugtyp.
+ * @param registrationOffice Nur Berechnungen mit dieser Zulassungsstelle.
+ * @param postcode           Nur Berechnungen mit dieser Postleitzahl.
+ * @param minPremium         Nur Berechnungen mit mindestens dieser Prämie.
+ * @param maxPremium         Nur Berechnungen mit höchstens dieser Prämie.
+ */
+public record InsuranceCalculationFilter(
+        VehicleType vehicleType,
+        String registrationOffice,
+        String postcode,
+        Double minPremium,
+        Double maxPremium
+) {
+}
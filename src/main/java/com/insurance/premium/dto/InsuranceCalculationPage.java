@@ -0,0 +1,15 @@
+package com.insurance.premium.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite der Auflistung von Versicherungsberechnungen, aufsteigend nach ID sortiert.
+ *
+ * @param items       Die Berechnungen dieser Seite.
+ * @param nextAfterId Der Cursor für die nächste Seite oder `null`, wenn dies die letzte Seite ist.
+ */
+public record InsuranceCalculationPage(
+        List<InsuranceCalculationDTO> items,
+        Long nextAfterId
+) {
+}
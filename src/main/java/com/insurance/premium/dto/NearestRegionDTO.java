@@ -0,0 +1,27 @@
+package com.insurance.premium.dto;
+
+import com.insurance.premium.enums.BundeslandISO;
+
+/**
+ * Data Transfer Object für die zu einer Koordinate nächstgelegene Region.
+ *
+ * @param postcode   Die Postleitzahl.
+ * @param place      Der Ort.
+ * @param city       Die Stadt bzw. Gemeinde.
+ * @param district   Der Landkreis.
+ * @param bundesland Das Bundesland.
+ * @param latitude   Der Breitengrad der Region.
+ * @param longitude  Der Längengrad der Region.
+ * @param distanceKm Die Entfernung zwischen angefragter Koordinate und Region in Kilometern.
+ */
+public record NearestRegionDTO(
+        String postcode,
+        String place,
+        String city,
+        String district,
+        BundeslandISO bundesland,
+        double latitude,
+        double longitude,
+        double distanceKm
+) {
+}
@@ -0,0 +1,19 @@
+package com.insurance.premium.dto;
+
+import com.insurance.premium.enums.BundeslandISO;
+
+/**
+ * Data Transfer Object für einen Vorschlag der Adress-Autovervollständigung.
+ *
+ * @param postcode   Die Postleitzahl; bei Vorschlägen für Städte die kleinste Postleitzahl der Stadt im Landkreis.
+ * @param city       Die Stadt bzw. Gemeinde.
+ * @param district   Der Landkreis.
+ * @param bundesland Das Bundesland.
+ */
+public record RegionSuggestionDTO(
+        String postcode,
+        String city,
+        String district,
+        BundeslandISO bundesland
+) {
+}
@@ -0,0 +1,26 @@
+package com.insurance.premium.dto;
+
+/**
+ * Data Transfer Object (DTO) für den Fortschritt der Neubewertung.
+ *
+ * @param state         Der Zustand: `IDLE`, `STARTING`, `RUNNING`, `COMPLETED`, `FAILED`, `STOPPED` oder `SKIPPED`,
+ *                      wenn die Neubewertung auf einem anderen Knoten läuft.
+ * @param tariffVersion Die Version des Tarifs, mit dem neu bewertet wird.
+ * @param processedRows Die Anzahl der neu bewerteten Berechnungen, einschließlich früherer Läufe derselben Neubewertung.
+ * @param skippedRows   Die Anzahl der Berechnungen ohne Fahrzeugtyp oder Kilometer, die nicht bewertet werden konnten.
+ * @param totalRows     Die Gesamtzahl der neu zu bewertenden Berechnungen, einschließlich früherer Läufe derselben Neubewertung.
+ * @param lastId        Die ID der zuletzt geschriebenen Berechnung.
+ * @param rowsPerSecond Der Durchsatz des aktuellen Laufs.
+ * @param etaSeconds    Die geschätzte Restdauer in Sekunden, solange die Neubewertung läuft.
+ */
+public record RepricingStatusDTO(
+        String state,
+        String tariffVersion,
+        long processedRows,
+        long skippedRows,
+        long totalRows,
+        Long lastId,
+        double rowsPerSecond,
+        Long etaSeconds
+) {
+}
@@ -0,0 +1,28 @@
+package com.insurance.premium.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) für den laufenden oder zuletzt beendeten Lauf der Bereinigung.
+ *
+ * @param state             Der Zustand: `IDLE`, `STARTING`, `RUNNING`, `COMPLETED`, `FAILED` oder `STOPPED`.
+ * @param cutoff            Berechnungen, die vor diesem Zeitpunkt gespeichert wurden, werden entfernt.
+ * @param partitioned       Ob die Tabelle partitioniert ist, sodass abgelaufene Monate als Partition entfernt werden.
+ * @param createdPartitions Die im Lauf angelegten Partitionen für kommende Monate.
+ * @param droppedPartitions Die im Lauf abgehängten und gelöschten Partitionen.
+ * @param deletedRows       Die Anzahl der blockweise gelöschten Berechnungen.
+ * @param startedAt         Der Beginn des Laufs.
+ * @param finishedAt        Das Ende des Laufs, solange er läuft `null`.
+ */
+public record RetentionStatusDTO(
+        String state,
+        Instant cutoff,
+        boolean partitioned,
+        List<String> createdPartitions,
+        List<String> droppedPartitions,
+        long deletedRows,
+        Instant startedAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.insurance.premium.dto;
+
+/**
+ * Data Transfer Object (DTO) für den aktiven Tarif.
+ *
+ * @param version  Die Version des aktiven Tarifs.
+ * @param location Der Ort der Tarifdatei.
+ * @param error    Der Grund, warum ein Neuladen fehlgeschlagen ist, sonst `null`.
+ */
+public record TariffDTO(
+        String version,
+        String location,
+        String error
+) {
+}
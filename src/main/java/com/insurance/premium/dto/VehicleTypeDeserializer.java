@@ -13,6 +13,8 @@ import java.io.IOException;
  * wobei Groß- und Kleinschreibung ignoriert wird.
  * Wenn der String nicht in ein bekanntes VehicleType-Enum konvertiert werden kann,
  * wird `DEFAULT_FACTOR` zurückgegeben.
+ * Der Name wird über {@link VehicleType#fromName(char[], int, int)} direkt im Puffer des Parsers nachgeschlagen,
+ * ohne String-Kopie und ohne Exception für unbekannte Werte.
  */
 public class VehicleTypeDeserializer extends JsonDeserializer<VehicleType> {
 
@@ -22,15 +24,15 @@ public class VehicleTypeDeserializer extends JsonDeserializer<VehicleType> {
      * @param p     Der JSON-Parser, der den String-Wert liefert.
      * @param ctxt  Der Deserialisierungskontext.
      * @return Das entsprechende VehicleType-Enum oder `DEFAULT_FACTOR`, wenn der String ungültig ist.
+     *         Objekte und Arrays werden übersprungen und ergeben ebenfalls `DEFAULT_FACTOR`.
      * @throws IOException Wenn ein Fehler während der Deserialisierung auftritt.
      */
     @Override
     public VehicleType deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        String value = p.getText().toUpperCase();
-        try {
-            return VehicleType.valueOf(value);
-        } catch (IllegalArgumentException e) {
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
             return VehicleType.DEFAULT_FACTOR;
         }
+        return VehicleType.fromName(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
     }
 }
\ No newline at end of file
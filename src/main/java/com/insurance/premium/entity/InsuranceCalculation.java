@@ -3,17 +3,43 @@ package com.insurance.premium.entity;
 import com.insurance.premium.enums.VehicleType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
 
 /**
  * Entitätsklasse, die eine Versicherungsberechnung darstellt.
+ * Die zusammengesetzten Indizes enden jeweils auf `id`, damit gefilterte Seiten der Keyset-Paginierung
+ * direkt an der Cursor-Position gelesen werden können.
+ * <p>
+ * Unter PostgreSQL kann die Tabelle nach `created_at` monatsweise partitioniert werden
+ * (`db/migration/insurance-calculation-monthly-partitions.sql`); der Primärschlüssel umfasst dann auch `created_at`.
  */
 @Entity
 @Data
-@Table(name = "insurance_calculation")
+@Table(name = "insurance_calculation", indexes = {
+        @Index(name = "idx_insurance_calculation_vehicle_type_id", columnList = "vehicle_type, id"),
+        @Index(name = "idx_insurance_calculation_registration_office_id", columnList = "registration_office, id"),
+        @Index(name = "idx_insurance_calculation_postcode_id", columnList = "postcode, id"),
+        @Index(name = "idx_insurance_calculation_premium_id", columnList = "calculated_premium, id"),
+        @Index(name = "idx_insurance_calculation_created_at_id", columnList = "created_at, id")
+})
 public class InsuranceCalculation {
 
+    /**
+     * Die Schrittweite der ID-Sequenz. Jeder Wert der Sequenz steht für einen Block von IDs, den sich ein Aufrufer
+     * reserviert; auch der reaktive Zugriff per R2DBC vergibt seine IDs in solchen Blöcken.
+     */
+    public static final int ID_ALLOCATION_SIZE = 1000;
+
+    /**
+     * Die IDs werden aus einer Sequenz in Blöcken vergeben, damit Hibernate Einfügungen per JDBC-Batch senden kann.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_calculation_seq")
+    @SequenceGenerator(name = "insurance_calculation_seq", sequenceName = "insurance_calculation_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "annual_kilometers")
@@ -25,10 +51,29 @@ public class InsuranceCalculation {
     @Column(name = "registration_office")
     private String registrationOffice;
 
+    /**
+     * Als VARCHAR statt als datenbankeigener Enum-Typ gespeichert, damit auch der reaktive Zugriff per R2DBC
+     * den Namen des Fahrzeugtyps als Text binden kann.
+     */
     @Column(name = "vehicle_type")
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private VehicleType vehicleType;
 
     @Column(name = "calculated_premium")
     private Double calculatedPremium;
+
+    /**
+     * Die Version des Tarifs, mit dem die Prämie berechnet wurde.
+     */
+    @Column(name = "tariff_version")
+    private String tariffVersion;
+
+    /**
+     * Der Zeitpunkt, zu dem die Berechnung gespeichert wurde. Aktualisierungen ändern ihn nicht;
+     * nach ihm richten sich die Partitionierung und die Aufbewahrungsfrist.
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
 }
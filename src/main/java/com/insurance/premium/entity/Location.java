@@ -6,30 +6,18 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Diese Entitätsklasse repräsentiert eine geografische Position mit Breitengrad und Längengrad.
+ * Diese Klasse repräsentiert eine geografische Position mit Breitengrad und Längengrad.
+ * Sie wird direkt in die Tabelle der besitzenden Entität eingebettet und hat keine eigene Tabelle.
  */
-@Entity
+@Embeddable
 @Data
-@Table(name = "location")
 @AllArgsConstructor
 @NoArgsConstructor
 public class Location {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @Column(name = "latitude")
     private Double latitude;
 
     @Column(name = "longitude")
     private Double longitude;
-
-    @OneToOne(mappedBy = "location")
-    private RegionData regionData;
-
-    public Location(Double latitude, Double longitude) {
-        this.latitude = latitude;
-        this.longitude = longitude;
-    }
 }
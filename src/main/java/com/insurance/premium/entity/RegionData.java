@@ -6,7 +6,8 @@ import lombok.Data;
 
 /**
  * Diese Entitätsklasse repräsentiert Daten zu einer Region.
- * Sie enthält Informationen wie Bundesland, Land, Stadt und Postleitzahl sowie eine Verknüpfung zur Location.
+ * Sie enthält Informationen wie Bundesland, Land, Stadt und Postleitzahl sowie die eingebettete Location.
+ * Breiten- und Längengrad liegen als Spalten direkt in `region_data`, sodass weder Import noch Abfrage eine zweite Tabelle brauchen.
  */
 @Entity
 @Data
@@ -32,8 +33,7 @@ public class RegionData {
     @Column(name = "postleitzahl")
     private String postleitzahl;
 
-    @OneToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "location_id", referencedColumnName = "id")
+    @Embedded
     private Location location;
 }
 
@@ -0,0 +1,32 @@
+package com.insurance.premium.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Diese Entitätsklasse beschreibt den Stand eines importierten Regionsdatensatzes.
+ * Anhand der Prüfsumme wird beim Start erkannt, ob sich die Quelldatei seit dem letzten Import geändert hat.
+ */
+@Entity
+@Data
+@Table(name = "region_data_version")
+public class RegionDataVersion {
+
+    @Id
+    @Column(name = "dataset")
+    private String dataset;
+
+    @Column(name = "content_hash", nullable = false)
+    private String contentHash;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "imported_at", nullable = false)
+    private Instant importedAt;
+}
@@ -0,0 +1,49 @@
+package com.insurance.premium.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Diese Entitätsklasse beschreibt den Fortschritt einer Neubewertung der gespeicherten Versicherungsberechnungen.
+ * Der Stand wird nach jedem Block in derselben Transaktion wie die neuen Prämien geschrieben, sodass eine
+ * abgebrochene Neubewertung nach einem Neustart ab der letzten bestätigten ID fortgesetzt werden kann.
+ */
+@Entity
+@Data
+@Table(name = "repricing_checkpoint")
+public class RepricingCheckpoint {
+
+    /**
+     * Der Zustand einer Neubewertung.
+     */
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "job")
+    private String job;
+
+    @Column(name = "tariff_version", nullable = false)
+    private String tariffVersion;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Long processedRows;
+
+    @Column(name = "skipped_rows", nullable = false)
+    private Long skippedRows;
+
+    @Column(name = "state", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private State state;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
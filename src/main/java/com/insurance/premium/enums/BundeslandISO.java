@@ -1,5 +1,9 @@
 package com.insurance.premium.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Dieses Enum repräsentiert die verschiedenen Bundesländer in Deutschland
  * mit einem entsprechenden Regionfaktor, der bei der Berechnung der Versicherungsprämie verwendet wird.
@@ -59,16 +63,58 @@ public enum BundeslandISO {
 
     /**
      * Gibt das BundeslandISO-Enum basierend auf dem Namen des Bundeslandes zurück.
+     * Akzeptiert werden der Name des Bundeslandes, das Länderkürzel (z. B. `BW`) und der ISO-Code (z. B. `DE-BW`),
+     * jeweils unabhängig von Groß-/Kleinschreibung und Umlautschreibweise (z. B. `baden-wuerttemberg`).
      *
      * @param bundesland Der Name des Bundeslandes.
      * @return Das entsprechende BundeslandISO-Enum oder `DE_DE` als Standard.
      */
     public static BundeslandISO fromBundesland(String bundesland) {
-        for (BundeslandISO iso : BundeslandISO.values()) {
-            if (iso.getBundesland().equalsIgnoreCase(bundesland)) {
-                return iso;
+        BundeslandISO iso = bundesland != null ? Lookup.INDEX.get(bundesland) : null;
+        if (iso == null) {
+            Lookup.FALLBACKS.increment();
+            return BundeslandISO.DE_DE;
+        }
+        return iso;
+    }
+
+    /**
+     * @return Die Anzahl der Namen, die über den Index aufgelöst werden konnten.
+     */
+    public static long lookupHits() {
+        return Lookup.INDEX.hits();
+    }
+
+    /**
+     * @return Die Anzahl der Namen, die nicht im Index gefunden wurden.
+     */
+    public static long lookupMisses() {
+        return Lookup.INDEX.misses();
+    }
+
+    /**
+     * @return Die Anzahl der Aufrufe, die auf `DE_DE` zurückgefallen sind, einschließlich fehlender Namen.
+     */
+    public static long fallbacks() {
+        return Lookup.FALLBACKS.sum();
+    }
+
+    /**
+     * Hält den Nachschlage-Index, der einmalig beim ersten Zugriff aufgebaut wird.
+     */
+    private static final class Lookup {
+
+        private static final FoldedNameIndex<BundeslandISO> INDEX = new FoldedNameIndex<>(names());
+        private static final LongAdder FALLBACKS = new LongAdder();
+
+        private static Map<String, BundeslandISO> names() {
+            Map<String, BundeslandISO> names = new HashMap<>();
+            for (BundeslandISO iso : BundeslandISO.values()) {
+                names.put(iso.getBundesland(), iso);
+                names.put(iso.name(), iso);
+                names.put(iso.name().substring(iso.name().indexOf('_') + 1), iso);
             }
+            return names;
         }
-        return BundeslandISO.DE_DE;
     }
 }
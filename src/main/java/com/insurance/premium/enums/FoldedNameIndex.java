@@ -0,0 +1,190 @@
+package com.insurance.premium.enums;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vorberechneter Hash-Index für Namen, der Groß-/Kleinschreibung und Umlaute faltet.
+ * Buchstaben werden klein geschrieben, `ä`, `ö`, `ü` und `ß` werden zu `ae`, `oe`, `ue` und `ss`,
+ * alle übrigen Zeichen außer Buchstaben und Ziffern (Leerzeichen, Bindestriche, Unterstriche) werden ignoriert.
+ * Ein Index, der nur die Groß-/Kleinschreibung faltet, vergleicht dagegen alle übrigen Zeichen unverändert.
+ * Die Eingabe wird beim Nachschlagen zeichenweise gefaltet, ohne neue Objekte anzulegen.
+ *
+ * @param <E> Der Typ der nachgeschlagenen Werte.
+ */
+final class FoldedNameIndex<E> {
+
+    private final char[][] keys;
+    private final Object[] values;
+    private final int mask;
+    private final boolean caseOnly;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Baut den Index aus den übergebenen Namen auf.
+     *
+     * @param names Zuordnung von Namen zu Werten. Namen, die nach dem Falten gleich sind, müssen denselben Wert haben.
+     */
+    FoldedNameIndex(Map<String, E> names) {
+        this(names, false);
+    }
+
+    /**
+     * Baut den Index aus den übergebenen Namen auf.
+     *
+     * @param names    Zuordnung von Namen zu Werten. Namen, die nach dem Falten gleich sind, müssen denselben Wert haben.
+     * @param caseOnly Ob nur die Groß-/Kleinschreibung gefaltet wird, ohne Umlaute umzuschreiben und Trennzeichen
+     *                 zu ignorieren.
+     */
+    FoldedNameIndex(Map<String, E> names, boolean caseOnly) {
+        int capacity = Integer.highestOneBit(Math.max(names.size(), 1) * 4 - 1) << 1;
+        this.keys = new char[capacity][];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.caseOnly = caseOnly;
+
+        names.forEach((name, value) -> {
+            char[] key = fold(name);
+            int slot = hash(name, 0, name.length()) & mask;
+            while (keys[slot] != null) {
+                if (matches(keys[slot], name, 0, name.length())) {
+                    if (values[slot] != value) {
+                        throw new IllegalStateException("Ambiguous name after folding: " + name);
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        });
+    }
+
+    /**
+     * Schlägt einen Namen nach.
+     *
+     * @param name Der Name.
+     * @return Der zugeordnete Wert oder `null`, wenn der Name nicht bekannt ist.
+     */
+    E get(CharSequence name) {
+        return lookup(name, 0, name.length());
+    }
+
+    /**
+     * Schlägt einen Namen in einem Ausschnitt eines Zeichenpuffers nach.
+     *
+     * @param buffer Der Zeichenpuffer.
+     * @param offset Der Beginn des Namens im Puffer.
+     * @param length Die Länge des Namens.
+     * @return Der zugeordnete Wert oder `null`, wenn der Name nicht bekannt ist.
+     */
+    E get(char[] buffer, int offset, int length) {
+        return lookup(buffer, offset, offset + length);
+    }
+
+    /**
+     * @return Die Anzahl erfolgreicher Nachschlagevorgänge.
+     */
+    long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Die Anzahl der Nachschlagevorgänge ohne Treffer.
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E lookup(Object source, int start, int end) {
+        int slot = hash(source, start, end) & mask;
+        char[] key;
+        while ((key = keys[slot]) != null) {
+            if (matches(key, source, start, end)) {
+                hits.increment();
+                return (E) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private int hash(Object source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            char c = charAt(source, i);
+            char expansion = caseOnly ? 0 : expansion(c);
+            if (expansion != 0) {
+                hash = 31 * (31 * hash + base(c)) + expansion;
+            } else if (caseOnly || Character.isLetterOrDigit(c)) {
+                hash = 31 * hash + Character.toLowerCase(c);
+            }
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(char[] key, Object source, int start, int end) {
+        int k = 0;
+        for (int i = start; i < end; i++) {
+            char c = charAt(source, i);
+            char expansion = caseOnly ? 0 : expansion(c);
+            if (expansion != 0) {
+                if (k + 1 >= key.length || key[k] != base(c) || key[k + 1] != expansion) {
+                    return false;
+                }
+                k += 2;
+            } else if (caseOnly || Character.isLetterOrDigit(c)) {
+                if (k >= key.length || key[k] != Character.toLowerCase(c)) {
+                    return false;
+                }
+                k++;
+            }
+        }
+        return k == key.length;
+    }
+
+    private char[] fold(String name) {
+        StringBuilder folded = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char expansion = caseOnly ? 0 : expansion(c);
+            if (expansion != 0) {
+                folded.append(base(c)).append(expansion);
+            } else if (caseOnly || Character.isLetterOrDigit(c)) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString().toCharArray();
+    }
+
+    private static char charAt(Object source, int index) {
+        return source instanceof char[] buffer ? buffer[index] : ((CharSequence) source).charAt(index);
+    }
+
+    /**
+     * @return Das zweite Zeichen der Umschreibung eines Umlauts oder `0`, wenn das Zeichen kein Umlaut ist.
+     */
+    private static char expansion(char c) {
+        return switch (c) {
+            case 'ä', 'Ä', 'ö', 'Ö', 'ü', 'Ü' -> 'e';
+            case 'ß' -> 's';
+            default -> 0;
+        };
+    }
+
+    /**
+     * @return Das erste Zeichen der Umschreibung eines Umlauts.
+     */
+    private static char base(char c) {
+        return switch (c) {
+            case 'ä', 'Ä' -> 'a';
+            case 'ö', 'Ö' -> 'o';
+            case 'ü', 'Ü' -> 'u';
+            default -> 's';
+        };
+    }
+}
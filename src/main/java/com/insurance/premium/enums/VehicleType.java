@@ -1,5 +1,8 @@
 package com.insurance.premium.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Dieses Enum repräsentiert verschiedene Fahrzeugtypen mit einem entsprechenden Faktor,
  * der bei der Berechnung der Versicherungsprämie verwendet wird.
@@ -43,4 +46,47 @@ public enum VehicleType {
     public double getVehicleFactor() {
         return vehicleFactor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gibt den Fahrzeugtyp zu einem Namen zurück, unabhängig von Groß-/Kleinschreibung.
+     * Unbekannte Namen liefern `DEFAULT_FACTOR`, ohne dass dafür eine Exception geworfen wird.
+     *
+     * @param name Der Name des Fahrzeugtyps.
+     * @return Der entsprechende Fahrzeugtyp oder `DEFAULT_FACTOR`, wenn der Name nicht bekannt ist.
+     */
+    public static VehicleType fromName(CharSequence name) {
+        VehicleType vehicleType = name != null ? Lookup.INDEX.get(name) : null;
+        return vehicleType != null ? vehicleType : DEFAULT_FACTOR;
+    }
+
+    /**
+     * Gibt den Fahrzeugtyp zu einem Namen in einem Ausschnitt eines Zeichenpuffers zurück, etwa direkt aus dem
+     * Puffer eines JSON-Parsers, ohne dafür einen String anzulegen.
+     *
+     * @param buffer Der Zeichenpuffer.
+     * @param offset Der Beginn des Namens im Puffer.
+     * @param length Die Länge des Namens.
+     * @return Der entsprechende Fahrzeugtyp oder `DEFAULT_FACTOR`, wenn der Name nicht bekannt ist.
+     */
+    public static VehicleType fromName(char[] buffer, int offset, int length) {
+        VehicleType vehicleType = Lookup.INDEX.get(buffer, offset, length);
+        return vehicleType != null ? vehicleType : DEFAULT_FACTOR;
+    }
+
+    /**
+     * Hält den Nachschlage-Index, der einmalig beim ersten Zugriff aufgebaut wird.
+     */
+    private static final class Lookup {
+
+        // nur Groß-/Kleinschreibung: "S-U-V" oder "snow mobile" sind keine bekannten Fahrzeugtypen
+        private static final FoldedNameIndex<VehicleType> INDEX = new FoldedNameIndex<>(names(), true);
+
+        private static Map<String, VehicleType> names() {
+            Map<String, VehicleType> names = new HashMap<>();
+            for (VehicleType vehicleType : VehicleType.values()) {
+                names.put(vehicleType.name(), vehicleType);
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.insurance.premium.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn die Tarifdatei nicht gelesen werden kann oder ungültige Faktoren enthält.
+ * Der bisher aktive Tarif bleibt in diesem Fall unverändert.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class InvalidTariffException extends RuntimeException {
+
+    public InvalidTariffException(String location, String reason, Throwable cause) {
+        super("Invalid tariff " + location + ": " + reason, cause);
+    }
+}
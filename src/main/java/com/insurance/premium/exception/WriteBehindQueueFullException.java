@@ -0,0 +1,15 @@
+package com.insurance.premium.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn die Write-Behind-Warteschlange voll ist und die Berechnung nicht angenommen werden kann.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteBehindQueueFullException extends RuntimeException {
+
+    public WriteBehindQueueFullException(int capacity) {
+        super("Write-behind queue is full (capacity " + capacity + ")");
+    }
+}
@@ -2,7 +2,48 @@ package com.insurance.premium.repository;
 
 
 import com.insurance.premium.entity.InsuranceCalculation;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface InsuranceCalculationRepository extends JpaRepository<InsuranceCalculation, Long> {
+import java.util.Optional;
+
+public interface InsuranceCalculationRepository extends JpaRepository<InsuranceCalculation, Long>,
+        JpaSpecificationExecutor<InsuranceCalculation> {
+
+    /**
+     * Überschreibt eine gespeicherte Berechnung mit einer einzigen UPDATE-Anweisung, ohne sie vorher zu laden.
+     * Anders als {@link #save(Object)} legt die Anweisung keine neue Zeile an, wenn es die ID nicht gibt.
+     *
+     * @param calculation Die Berechnung mit ihrer ID und den neuen Werten.
+     * @return Die Anzahl der geänderten Zeilen, also 0, falls es keine Berechnung mit dieser ID gibt.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update InsuranceCalculation c
+            set c.annualKilometers = :#{#calculation.annualKilometers},
+                c.postcode = :#{#calculation.postcode},
+                c.registrationOffice = :#{#calculation.registrationOffice},
+                c.vehicleType = :#{#calculation.vehicleType},
+                c.calculatedPremium = :#{#calculation.calculatedPremium},
+                c.tariffVersion = :#{#calculation.tariffVersion}
+            where c.id = :#{#calculation.id}""")
+    int overwrite(@Param("calculation") InsuranceCalculation calculation);
+
+    /**
+     * Liest eine Berechnung und sperrt ihre Zeile bis zum Ende der Transaktion (`SELECT ... FOR UPDATE`),
+     * damit gleichzeitige Teilaktualisierungen einander nicht überschreiben.
+     *
+     * @param id Die ID der Berechnung.
+     * @return Die gesperrte Berechnung, falls vorhanden.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from InsuranceCalculation c where c.id = :id")
+    Optional<InsuranceCalculation> findForUpdateById(@Param("id") Long id);
 }
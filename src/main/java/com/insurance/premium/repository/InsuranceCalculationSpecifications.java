@@ -0,0 +1,52 @@
+package com.insurance.premium.repository;
+
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.entity.InsuranceCalculation;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications für die Abfrage von Versicherungsberechnungen.
+ */
+public final class InsuranceCalculationSpecifications {
+
+    private InsuranceCalculationSpecifications() {
+    }
+
+    /**
+     * Erzeugt die Bedingung für eine Seite der Keyset-Paginierung: alle Berechnungen, die dem Filter entsprechen
+     * und deren ID größer als der Cursor ist. Zusammen mit der Sortierung nach ID kann die Datenbank direkt
+     * an der Cursor-Position im Index einsteigen, statt wie bei `OFFSET` alle vorherigen Zeilen zu überspringen.
+     *
+     * @param filter  Der Filter.
+     * @param afterId Die ID der letzten Berechnung der vorherigen Seite oder `null` für die erste Seite.
+     * @return Die Specification.
+     */
+    public static Specification<InsuranceCalculation> matching(InsuranceCalculationFilter filter, Long afterId) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterId != null) {
+                predicates.add(builder.greaterThan(root.get("id"), afterId));
+            }
+            if (filter.vehicleType() != null) {
+                predicates.add(builder.equal(root.get("vehicleType"), filter.vehicleType()));
+            }
+            if (filter.registrationOffice() != null) {
+                predicates.add(builder.equal(root.get("registrationOffice"), filter.registrationOffice()));
+            }
+            if (filter.postcode() != null) {
+                predicates.add(builder.equal(root.get("postcode"), filter.postcode()));
+            }
+            if (filter.minPremium() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("calculatedPremium"), filter.minPremium()));
+            }
+            if (filter.maxPremium() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("calculatedPremium"), filter.maxPremium()));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.insurance.premium.repository;
+
+
+import com.insurance.premium.entity.RegionDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RegionDataVersionRepository extends JpaRepository<RegionDataVersion, String> {
+}
@@ -0,0 +1,8 @@
+package com.insurance.premium.repository;
+
+
+import com.insurance.premium.entity.RepricingCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RepricingCheckpointRepository extends JpaRepository<RepricingCheckpoint, String> {
+}
@@ -0,0 +1,113 @@
+package com.insurance.premium.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service-Klasse für die Stapelverarbeitung von Versicherungsberechnungen.
+ * Die Eingabe wird als JSON-Array oder NDJSON gestreamt gelesen und in Blöcken berechnet, gespeichert
+ * und als NDJSON zurückgeschrieben, sodass nie der gesamte Stapel im Speicher liegt.
+ * <p>
+ * Da der Status 200 bereits mit dem ersten Block gesendet ist, endet ein abgebrochener Stapel mit einem
+ * abschließenden Fehlerdatensatz `{"error": ..., "processed": n}`. `processed` zählt die gespeicherten und
+ * zurückgeschriebenen Berechnungen; der Client kann den Stapel ab diesem Eintrag erneut senden.
+ */
+@Service
+@Log4j2
+public class InsuranceCalculationBatchService {
+
+    /**
+     * Anzahl der Berechnungen pro Block, passend zu `hibernate.jdbc.batch_size`.
+     */
+    static final int CHUNK_SIZE = 1000;
+
+    private final InsuranceCalculationService insuranceCalculationService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param insuranceCalculationService Service für die Logik der Versicherungsberechnung.
+     * @param objectMapper                Der ObjectMapper zum Lesen und Schreiben der Data Transfer Objects.
+     */
+    public InsuranceCalculationBatchService(InsuranceCalculationService insuranceCalculationService, ObjectMapper objectMapper) {
+        this.insuranceCalculationService = insuranceCalculationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Liest Versicherungsberechnungen aus einem JSON-Array oder NDJSON-Strom, berechnet und speichert sie blockweise
+     * und schreibt die Ergebnisse als NDJSON, sobald ein Block abgeschlossen ist.
+     *
+     * @param input  Der Eingabestrom mit den InsuranceCalculationDTOs.
+     * @param output Der Ausgabestrom für die gespeicherten InsuranceCalculationDTOs.
+     * @return Die Anzahl der verarbeiteten Berechnungen.
+     * @throws IOException Wenn die Eingabe oder die Ausgabe nicht mehr erreichbar ist; ungültige Eingaben und
+     *                     fehlgeschlagene Berechnungen werden stattdessen als Fehlerdatensatz geschrieben.
+     */
+    public long calculate(InputStream input, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        List<InsuranceCalculationDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<InsuranceCalculationDTO> iterator = objectMapper.readerFor(InsuranceCalculationDTO.class).readValues(input);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            try {
+                while (iterator.hasNextValue()) {
+                    chunk.add(iterator.nextValue());
+                    if (chunk.size() == CHUNK_SIZE) {
+                        count += writeChunk(chunk, generator);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    count += writeChunk(chunk, generator);
+                }
+            } catch (JsonProcessingException e) {
+                // Der angefangene Block wird verworfen, damit `processed` genau die gespeicherten Berechnungen zählt.
+                log.warn("Batch aborted after {} calculations, invalid input: {}", count, e.getOriginalMessage());
+                writeError(generator, "Invalid input: " + e.getOriginalMessage(), count);
+                return count;
+            } catch (RuntimeException e) {
+                log.error("Batch aborted after {} calculations", count, e);
+                writeError(generator, "Calculation failed", count);
+                return count;
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Batch of {} calculations processed in {} ms ({} calculations/s)", count, elapsedMillis, count * 1000 / elapsedMillis);
+        return count;
+    }
+
+    private static void writeError(JsonGenerator generator, String error, long processed) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", error);
+        generator.writeNumberField("processed", processed);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private int writeChunk(List<InsuranceCalculationDTO> chunk, JsonGenerator generator) throws IOException {
+        List<InsuranceCalculationDTO> results = insuranceCalculationService.calculateInsurances(chunk);
+        for (InsuranceCalculationDTO result : results) {
+            generator.writeObject(result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+        return results.size();
+    }
+}
@@ -0,0 +1,192 @@
+package com.insurance.premium.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.enums.VehicleType;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service-Klasse für den Export aller Versicherungsberechnungen als CSV oder NDJSON.
+ * Die Tabelle wird über einen serverseitigen JDBC-Cursor mit fester Fetch-Size gelesen und jede Zeile sofort
+ * in die Ausgabe geschrieben, sodass der Speicherbedarf unabhängig von der Tabellengröße konstant bleibt.
+ * Der Cursor benötigt unter PostgreSQL eine Transaktion; daher läuft der Export in einer Nur-Lese-Transaktion.
+ */
+@Service
+@Log4j2
+public class InsuranceCalculationExportService {
+
+    /**
+     * Anzahl der Zeilen, die pro Round-Trip vom Cursor geholt werden.
+     */
+    static final int FETCH_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SELECT_ALL = "SELECT id, annual_kilometers, postcode, registration_office, vehicle_type, calculated_premium, "
+            + "tariff_version FROM insurance_calculation ORDER BY id";
+    private static final String CSV_HEADER = "id,annual_kilometers,postcode,registration_office,vehicle_type,calculated_premium,tariff_version\n";
+
+    /**
+     * Die unterstützten Exportformate.
+     */
+    public enum ExportFormat {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param dataSource         Die DataSource, aus der exportiert wird.
+     * @param transactionManager Der TransactionManager für die Nur-Lese-Transaktion des Cursors.
+     * @param objectMapper       Der ObjectMapper zum Schreiben von NDJSON.
+     */
+    public InsuranceCalculationExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                             ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Schreibt alle Versicherungsberechnungen aufsteigend nach ID in die Ausgabe.
+     * Der Ausgabestrom wird nicht geschlossen.
+     *
+     * @param format Das Exportformat.
+     * @param gzip   Ob die Ausgabe mit gzip komprimiert wird.
+     * @param output Der Ausgabestrom.
+     * @return Die Anzahl der exportierten Zeilen.
+     * @throws IOException Wenn die Ausgabe nicht geschrieben werden kann.
+     */
+    public long export(ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        OutputStream target = compressed != null ? compressed : output;
+
+        long rows;
+        try {
+            rows = format == ExportFormat.CSV ? exportCsv(target) : exportNdjson(target);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Exported {} calculations as {}{} in {} ms ({} rows/s)",
+                rows, format, gzip ? " (gzip)" : "", elapsedMillis, rows * 1000 / elapsedMillis);
+        return rows;
+    }
+
+    private long exportCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        long rows = query(resultSet -> {
+            writer.write(Long.toString(resultSet.getLong(1)));
+            writer.write(',');
+            writeValue(writer, resultSet.getObject(2, Integer.class));
+            writer.write(',');
+            writeQuoted(writer, resultSet.getString(3));
+            writer.write(',');
+            writeQuoted(writer, resultSet.getString(4));
+            writer.write(',');
+            writeValue(writer, resultSet.getString(5));
+            writer.write(',');
+            writeValue(writer, resultSet.getObject(6, Double.class));
+            writer.write(',');
+            writeQuoted(writer, resultSet.getString(7));
+            writer.write('\n');
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long rows = query(resultSet -> {
+                String vehicleType = resultSet.getString(5);
+                generator.writeObject(new InsuranceCalculationDTO(
+                        resultSet.getLong(1),
+                        resultSet.getObject(2, Integer.class),
+                        resultSet.getString(3),
+                        resultSet.getString(4),
+                        vehicleType != null ? VehicleType.valueOf(vehicleType) : null,
+                        resultSet.getObject(6, Double.class),
+                        resultSet.getString(7)));
+                generator.writeRaw('\n');
+            });
+            generator.flush();
+            return rows;
+        }
+    }
+
+    /**
+     * Liest die Tabelle mit einem Cursor und übergibt jede Zeile an den Handler.
+     *
+     * @return Die Anzahl der gelesenen Zeilen.
+     */
+    private long query(RowWriter rowWriter) {
+        long[] rows = new long[1];
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_ALL, resultSet -> {
+            try {
+                rowWriter.write(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        }));
+        return rows[0];
+    }
+
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet resultSet) throws SQLException, IOException;
+    }
+}
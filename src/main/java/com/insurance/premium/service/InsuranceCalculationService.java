@@ -1,128 +1,284 @@
 package com.insurance.premium.service;
 
 
+import com.insurance.premium.config.CacheConfig;
 import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.dto.InsuranceCalculationPage;
 import com.insurance.premium.entity.InsuranceCalculation;
 import com.insurance.premium.enums.BundeslandISO;
 import com.insurance.premium.repository.InsuranceCalculationRepository;
+import com.insurance.premium.repository.InsuranceCalculationSpecifications;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Service-Klasse für die Verarbeitung der Logik der Versicherungsberechnung.
+ * Die Laufzeiten von Berechnung, Abruf, Aktualisierung und Löschung werden als Timer {@value #TIMER} gemessen.
  */
 @Service
 public class InsuranceCalculationService {
 
+    /**
+     * Name des Timers für die Operationen des Services; die Operation steht im Tag `operation`.
+     */
+    static final String TIMER = "insurance.calculation.operations";
+
     private final InsuranceCalculationRepository repository;
+    private final PostcodeIndex postcodeIndex;
+    private final InsuranceCalculationWriteBehind writeBehind;
+    private final PremiumMetrics premiumMetrics;
+    private final TariffEngine tariffEngine;
 
     /**
      * Konstruktor zur Injektion von Abhängigkeiten.
      *
      * @param insuranceCalculationRepository Repository für Versicherungsberechnungs-Entitäten.
+     * @param postcodeIndex Index zur Auflösung der Region aus der Postleitzahl.
+     * @param writeBehind Warteschlange für das asynchrone Speichern, falls aktiviert.
+     * @param premiumMetrics Zähler der berechneten Prämien je Fahrzeugtyp und Bundesland.
+     * @param tariffEngine Verwaltung des aktiven Tarifs, aus dem die Prämien gelesen werden.
      */
-    public InsuranceCalculationService(InsuranceCalculationRepository repository) {
+    public InsuranceCalculationService(InsuranceCalculationRepository repository, PostcodeIndex postcodeIndex,
+                                       InsuranceCalculationWriteBehind writeBehind, PremiumMetrics premiumMetrics,
+                                       TariffEngine tariffEngine) {
         this.repository = repository;
+        this.postcodeIndex = postcodeIndex;
+        this.writeBehind = writeBehind;
+        this.premiumMetrics = premiumMetrics;
+        this.tariffEngine = tariffEngine;
     }
 
     /**
      * Berechnet die Versicherungsprämie basierend auf dem bereitgestellten Data Transfer Object (DTO).
      * Die berechnete Prämie wird gespeichert und als DTO zurückgegeben.
+     * Ist Write-Behind aktiviert, wird die Berechnung asynchron gespeichert und ohne ID zurückgegeben.
      *
      * @param insuranceCalculationDTO Data Transfer Object, das die Details der Versicherungsberechnung enthält.
      * @return Ein Optional, das das gespeicherte InsuranceCalculationDTO mit der berechneten Prämie enthält, oder ein leeres Optional, falls die Operation fehlgeschlagen ist.
      */
+    @Timed(value = TIMER, extraTags = {"operation", "calculate"})
     public Optional<InsuranceCalculationDTO> calculateInsurance(InsuranceCalculationDTO insuranceCalculationDTO) {
 
+        // Eine Berechnung legt immer eine neue Zeile an; eine mitgeschickte ID würde sonst eine bestehende Berechnung
+        // an Cache und update() vorbei überschreiben.
         InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+        insuranceCalculation.setId(null);
         Double calculatePremium = calculatePremium(insuranceCalculation);
         insuranceCalculation.setCalculatedPremium(calculatePremium);
 
+        if (writeBehind.isEnabled()) {
+            InsuranceCalculationDTO calculated = toDTO(insuranceCalculation);
+            writeBehind.enqueue(insuranceCalculation);
+            return Optional.of(calculated);
+        }
+
         return Optional.ofNullable(insuranceCalculation)
                 .map(repository::save)
                 .map(this::toDTO);
     }
 
+    /**
+     * Berechnet ein Angebot für die Versicherungsprämie, ohne es zu speichern.
+     * Die Berechnung greift nicht auf die Datenbank zu und ist daher unabhängig von deren Verfügbarkeit.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object, das die Details der Versicherungsberechnung enthält.
+     * @return Das InsuranceCalculationDTO mit der berechneten Prämie und ohne ID.
+     */
+    public InsuranceCalculationDTO quote(InsuranceCalculationDTO insuranceCalculationDTO) {
+        InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+        insuranceCalculation.setId(null);
+        insuranceCalculation.setCalculatedPremium(calculatePremium(insuranceCalculation));
+
+        return toDTO(insuranceCalculation);
+    }
+
+    /**
+     * Speichert ein zuvor über {@link #quote(InsuranceCalculationDTO)} berechnetes Angebot.
+     * Die Prämie wird neu berechnet; enthält das Angebot eine Prämie, muss sie mit der neu berechneten übereinstimmen.
+     *
+     * @param insuranceCalculationDTO Das angenommene Angebot.
+     * @return Ein Optional, das das gespeicherte InsuranceCalculationDTO enthält, oder ein leeres Optional, falls sich die Prämie seit dem Angebot geändert hat.
+     */
+    public Optional<InsuranceCalculationDTO> commitQuote(InsuranceCalculationDTO insuranceCalculationDTO) {
+        InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+        insuranceCalculation.setId(null);
+        Double calculatePremium = calculatePremium(insuranceCalculation);
+        if (insuranceCalculationDTO.calculatedPremium() != null && !insuranceCalculationDTO.calculatedPremium().equals(calculatePremium)) {
+            return Optional.empty();
+        }
+        insuranceCalculation.setCalculatedPremium(calculatePremium);
+
+        return Optional.of(repository.save(insuranceCalculation))
+                .map(this::toDTO);
+    }
+
+    /**
+     * Berechnet die Prämie einer gespeicherten Berechnung mit einem vorgegebenen Tarif neu, ohne sie zu speichern.
+     * Gedacht für die Neubewertung des Bestands, bei der alle Zeilen mit demselben Tarifstand bewertet werden;
+     * die Neuberechnung zählt daher nicht als neue Prämienberechnung in den Metriken.
+     *
+     * @param insuranceCalculationDTO Die gespeicherte Berechnung.
+     * @param tariff                  Der Tarif, mit dem neu bewertet wird.
+     * @return Das InsuranceCalculationDTO mit der neuen Prämie und der Version des Tarifs.
+     */
+    public InsuranceCalculationDTO reprice(InsuranceCalculationDTO insuranceCalculationDTO, PremiumRateTable tariff) {
+        InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+        BundeslandISO region = resolveRegion(insuranceCalculation);
+        insuranceCalculation.setCalculatedPremium(tariff.premium(insuranceCalculation.getVehicleType(), region,
+                insuranceCalculation.getAnnualKilometers()));
+        insuranceCalculation.setTariffVersion(tariff.version());
+
+        return toDTO(insuranceCalculation);
+    }
+
+    /**
+     * Berechnet die Versicherungsprämien für mehrere Data Transfer Objects parallel und speichert sie gemeinsam.
+     * Die Einfügungen werden in einer Transaktion als JDBC-Batch gesendet; vom Client gesendete IDs werden ignoriert.
+     *
+     * @param insuranceCalculationDTOs Die Data Transfer Objects, die die Details der Versicherungsberechnungen enthalten.
+     * @return Die gespeicherten InsuranceCalculationDTOs mit den berechneten Prämien in der Reihenfolge der Eingabe.
+     */
+    @Transactional
+    @Timed(value = TIMER, extraTags = {"operation", "calculate_batch"})
+    public List<InsuranceCalculationDTO> calculateInsurances(List<InsuranceCalculationDTO> insuranceCalculationDTOs) {
+        List<InsuranceCalculation> insuranceCalculations = insuranceCalculationDTOs.parallelStream()
+                .map(insuranceCalculationDTO -> {
+                    InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+                    insuranceCalculation.setId(null);
+                    insuranceCalculation.setCalculatedPremium(calculatePremium(insuranceCalculation));
+                    return insuranceCalculation;
+                })
+                .toList();
+
+        return repository.saveAll(insuranceCalculations).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
     /**
      * Führt die Prämienberechnung basierend auf der gegebenen InsuranceCalculation-Entität durch.
-     * Die Berechnung basiert auf den jährlichen Kilometern, dem Fahrzeugtyp und der Region der Zulassung.
+     * Die Berechnung basiert auf den jährlichen Kilometern, dem Fahrzeugtyp und der Region der Zulassung
+     * und wird aus der {@link PremiumRateTable} des aktiven Tarifs gelesen, dessen Version an der Entität vermerkt wird.
      *
      * @param calculation Die InsuranceCalculation-Entität, die die notwendigen Daten für die Berechnung enthält.
      * @return Die berechnete Versicherungsprämie.
      */
     private Double calculatePremium(InsuranceCalculation calculation) {
 
-        Double kilometerFactor = getKilometerFactor(calculation.getAnnualKilometers());
-        Double vehicleFactor = calculation.getVehicleType().getVehicleFactor();
-        Double regionFactor = BundeslandISO.fromBundesland(calculation.getRegistrationOffice()).getRegionFactor();
+        BundeslandISO region = resolveRegion(calculation);
+        PremiumRateTable tariff = tariffEngine.current();
+        double premium = tariff.premium(calculation.getVehicleType(), region, calculation.getAnnualKilometers());
+        calculation.setTariffVersion(tariff.version());
+        premiumMetrics.recordCalculation(calculation.getVehicleType(), region);
 
-        return kilometerFactor * vehicleFactor * regionFactor;
+        return premium;
     }
 
     /**
-     * Bestimmt den Faktor, der bei der Prämienberechnung basierend auf den jährlich gefahrenen Kilometern verwendet wird.
+     * Ermittelt die Region der Zulassung. Eine bekannte Postleitzahl hat Vorrang vor der angegebenen Zulassungsstelle;
+     * fehlt die Zulassungsstelle, wird sie mit dem Namen des Bundeslandes aus der Postleitzahl ergänzt.
      *
-     * @param kilometers Die Anzahl der jährlich gefahrenen Kilometer.
-     * @return Der entsprechende Kilometerfaktor.
-     */
-    private Double getKilometerFactor(Integer kilometers) {
-        Double defaultKilometerFactor = 1.0;
-        if (kilometers <= 5000) {
-            return 0.5;
-        } else if (kilometers <= 10000) {
-            return 1.0;
-        } else if (kilometers <= 20000) {
-            return 1.5;
-        } else if (kilometers > 20000) {
-            return 2.0;
+     * @param calculation Die InsuranceCalculation-Entität mit Postleitzahl und Zulassungsstelle.
+     * @return Das Bundesland der Zulassung.
+     */
+    private BundeslandISO resolveRegion(InsuranceCalculation calculation) {
+        BundeslandISO region = postcodeIndex.findBundesland(calculation.getPostcode());
+        if (region == null) {
+            return BundeslandISO.fromBundesland(calculation.getRegistrationOffice());
         }
-        return defaultKilometerFactor;
+        if (calculation.getRegistrationOffice() == null) {
+            calculation.setRegistrationOffice(region.getBundesland());
+        }
+        return region;
     }
 
     /**
-     * Ruft alle InsuranceCalculation-Entitäten ab und konvertiert sie in DTOs.
+     * Ruft eine Seite von InsuranceCalculation-Entitäten per Keyset-Paginierung ab und konvertiert sie in DTOs.
+     * Die Seiten sind aufsteigend nach ID sortiert; die nächste Seite beginnt nach der letzten ID der vorherigen.
+     * Es wird eine Zeile mehr gelesen als angefordert, um zu erkennen, ob es eine weitere Seite gibt.
      *
-     * @return Eine Liste von InsuranceCalculationDTOs, die alle Versicherungsberechnungen im Repository darstellen.
+     * @param filter  Der Filter für die Berechnungen.
+     * @param afterId Die ID der letzten Berechnung der vorherigen Seite oder `null` für die erste Seite.
+     * @param limit   Die maximale Anzahl der Berechnungen pro Seite.
+     * @return Die Seite mit den InsuranceCalculationDTOs und dem Cursor für die nächste Seite.
      */
-    public List<InsuranceCalculationDTO> getAll() {
-        return repository.findAll().stream()
+    public InsuranceCalculationPage getPage(InsuranceCalculationFilter filter, Long afterId, int limit) {
+        List<InsuranceCalculation> rows = repository.findBy(InsuranceCalculationSpecifications.matching(filter, afterId),
+                query -> query.sortBy(Sort.by("id")).limit(limit + 1).all());
+
+        boolean hasNext = rows.size() > limit;
+        List<InsuranceCalculationDTO> items = rows.stream()
+                .limit(limit)
                 .map(this::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+        return new InsuranceCalculationPage(items, hasNext ? items.get(items.size() - 1).id() : null);
     }
 
     /**
      * Ruft eine InsuranceCalculation-Entität anhand ihrer ID ab und konvertiert sie in ein DTO.
+     * Gefundene Berechnungen werden im Cache {@value CacheConfig#INSURANCE_CALCULATIONS} gehalten;
+     * nicht gefundene IDs werden nicht zwischengespeichert.
      *
      * @param id Die ID der InsuranceCalculation-Entität.
      * @return Ein Optional, das das entsprechende InsuranceCalculationDTO enthält, oder ein leeres Optional, falls nicht gefunden.
      */
+    @Cacheable(cacheNames = CacheConfig.INSURANCE_CALCULATIONS, unless = "#result == null")
+    @Timed(value = TIMER, extraTags = {"operation", "get"})
     public Optional<InsuranceCalculationDTO> getById(Long id) {
         return repository.findById(id)
                 .map(this::toDTO);
     }
 
     /**
-     * Aktualisiert eine vorhandene InsuranceCalculation-Entität, die durch ihre ID identifiziert wird, mit den Daten aus dem bereitgestellten DTO.
-     * Die aktualisierte Entität wird gespeichert und als DTO zurückgegeben.
+     * Ersetzt eine vorhandene InsuranceCalculation-Entität, die durch ihre ID identifiziert wird, durch die Daten aus dem bereitgestellten DTO.
+     * Die Prämie wird neu berechnet und die Zeile mit einer einzigen UPDATE-Anweisung geschrieben, ohne sie vorher zu laden;
+     * ob es die ID gibt, ergibt sich aus der Anzahl der geänderten Zeilen.
      *
      * @param id Die ID der vorhandenen InsuranceCalculation-Entität.
      * @param insuranceCalculationDTO Data Transfer Object, das die aktualisierten Details der Versicherungsberechnung enthält.
-     * @return Ein Optional, das das aktualisierte InsuranceCalculationDTO enthält, oder ein leeres Optional, falls die Aktualisierung fehlgeschlagen ist.
+     * @return Ein Optional, das das aktualisierte InsuranceCalculationDTO enthält, oder ein leeres Optional, falls es keine Berechnung mit dieser ID gibt.
      */
+    @CacheEvict(cacheNames = CacheConfig.INSURANCE_CALCULATIONS, key = "#id")
+    @Timed(value = TIMER, extraTags = {"operation", "update"})
     public Optional<InsuranceCalculationDTO> update(Long id, InsuranceCalculationDTO insuranceCalculationDTO) {
-        Optional<InsuranceCalculation> existingInsuranceCalculation = repository.findById(id);
-        InsuranceCalculation updatedInsuranceCalculation = toEntity(insuranceCalculationDTO);
-        if (existingInsuranceCalculation.isPresent()) {
+        InsuranceCalculation insuranceCalculation = toEntity(insuranceCalculationDTO);
+        insuranceCalculation.setId(id);
+        insuranceCalculation.setCalculatedPremium(calculatePremium(insuranceCalculation));
 
-            updatedInsuranceCalculation.setId(id);
-            Double calculatePremium = calculatePremium(updatedInsuranceCalculation);
-            updatedInsuranceCalculation.setCalculatedPremium(calculatePremium);
+        if (repository.overwrite(insuranceCalculation) == 0) {
+            return Optional.empty();
         }
-        InsuranceCalculation savedInsuranceCalculation = repository.save(updatedInsuranceCalculation);
-        return Optional.ofNullable(toDTO(savedInsuranceCalculation));
+        return Optional.of(toDTO(insuranceCalculation));
+    }
+
+    /**
+     * Ändert nur die im DTO gesetzten Felder einer vorhandenen InsuranceCalculation-Entität und berechnet die Prämie neu.
+     * Da die Prämie von allen Eingabefeldern abhängt, wird die Zeile zuerst gesperrt gelesen und dann mit einer
+     * UPDATE-Anweisung geschrieben.
+     *
+     * @param id Die ID der vorhandenen InsuranceCalculation-Entität.
+     * @param insuranceCalculationDTO Data Transfer Object, in dem nur die zu ändernden Felder gesetzt sind.
+     * @return Ein Optional, das das aktualisierte InsuranceCalculationDTO enthält, oder ein leeres Optional, falls es keine Berechnung mit dieser ID gibt.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.INSURANCE_CALCULATIONS, key = "#id")
+    @Timed(value = TIMER, extraTags = {"operation", "patch"})
+    public Optional<InsuranceCalculationDTO> patch(Long id, InsuranceCalculationDTO insuranceCalculationDTO) {
+        return repository.findForUpdateById(id)
+                .map(existing -> {
+                    InsuranceCalculation insuranceCalculation = toEntity(toDTO(existing).withChanges(insuranceCalculationDTO));
+                    insuranceCalculation.setCalculatedPremium(calculatePremium(insuranceCalculation));
+                    repository.overwrite(insuranceCalculation);
+                    return toDTO(insuranceCalculation);
+                });
     }
 
     /**
@@ -130,6 +286,8 @@ public class InsuranceCalculationService {
      *
      * @param id Die ID der zu löschenden InsuranceCalculation-Entität.
      */
+    @CacheEvict(cacheNames = CacheConfig.INSURANCE_CALCULATIONS, key = "#id")
+    @Timed(value = TIMER, extraTags = {"operation", "delete"})
     public void delete(Long id) {
         repository.deleteById(id);
     }
@@ -165,7 +323,8 @@ public class InsuranceCalculationService {
                 insuranceCalculation.getPostcode(),
                 insuranceCalculation.getRegistrationOffice(),
                 insuranceCalculation.getVehicleType(),
-                insuranceCalculation.getCalculatedPremium()
+                insuranceCalculation.getCalculatedPremium(),
+                insuranceCalculation.getTariffVersion()
         );
     }
 
@@ -0,0 +1,219 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.WriteBehindProperties;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.exception.WriteBehindQueueFullException;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchrone Speicherung von Versicherungsberechnungen (Write-Behind).
+ * Fertig berechnete Entitäten werden in eine begrenzte Warteschlange gelegt und von einem Hintergrund-Thread
+ * in großen JDBC-Batches gespeichert, sobald die Batch-Größe erreicht oder das Flush-Intervall abgelaufen ist.
+ * Ist die Warteschlange voll, warten Aufrufer bis zum konfigurierten Timeout und werden dann abgelehnt.
+ * Beim Herunterfahren wird die Warteschlange nach dem Webserver vollständig geleert.
+ * Sind virtuelle Threads aktiviert (`spring.threads.virtual.enabled`), läuft auch der Hintergrund-Thread virtuell.
+ */
+@Component
+@Log4j2
+public class InsuranceCalculationWriteBehind implements SmartLifecycle {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final WriteBehindProperties properties;
+    private final InsuranceCalculationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<InsuranceCalculation> queue;
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+    private final boolean virtualThreads;
+
+    // Aufrufer von enqueue() halten die Lese-, stop() die Schreibsperre: nach dem Stoppen kann kein Aufrufer mehr
+    // eine Berechnung ablegen, die der Hintergrund-Thread nicht mehr speichert.
+    private final ReadWriteLock enqueueLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param properties         Die Einstellungen für Write-Behind.
+     * @param repository         Repository für Versicherungsberechnungs-Entitäten.
+     * @param transactionManager Der TransactionManager für die Batch-Transaktionen.
+     * @param meterRegistry      Die Registry für Warteschlangen- und Flush-Metriken.
+     * @param environment        Die Umgebung, aus der gelesen wird, ob virtuelle Threads aktiviert sind.
+     */
+    public InsuranceCalculationWriteBehind(WriteBehindProperties properties,
+                                           InsuranceCalculationRepository repository,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           Environment environment) {
+        this.properties = properties;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+
+        Gauge.builder("insurance.write.behind.queue.depth", queue, BlockingQueue::size)
+                .description("Calculations waiting to be persisted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("insurance.write.behind.flush")
+                .description("Time to persist one write-behind batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("insurance.write.behind.dropped")
+                .description("Calculations that could not be persisted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Ob Berechnungen asynchron gespeichert werden.
+     */
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Übergibt eine fertig berechnete Entität zur asynchronen Speicherung.
+     * Ist die Warteschlange voll, wird bis zum konfigurierten Timeout gewartet.
+     *
+     * @param insuranceCalculation Die zu speichernde Entität.
+     * @throws WriteBehindQueueFullException Wenn die Warteschlange auch nach dem Timeout voll ist oder nicht läuft.
+     */
+    public void enqueue(InsuranceCalculation insuranceCalculation) {
+        enqueueLock.readLock().lock();
+        try {
+            if (!running || !queue.offer(insuranceCalculation, properties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new WriteBehindQueueFullException(properties.capacity());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindQueueFullException(properties.capacity());
+        } finally {
+            enqueueLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        flusher = builder.name("write-behind-flusher").start(this::flushLoop);
+        log.info("Write-behind persistence started (capacity {}, batch size {}, flush interval {}, virtual thread {})",
+                properties.capacity(), properties.batchSize(), properties.flushInterval(), virtualThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // Wartet höchstens den Offer-Timeout auf laufende Aufrufe von enqueue().
+        enqueueLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            enqueueLock.writeLock().unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Hat ein Interrupt den Hintergrund-Thread vorzeitig beendet, werden verbliebene Berechnungen hier gespeichert.
+        drainRemaining(new ArrayList<>(properties.batchSize()));
+        log.info("Write-behind persistence stopped, queue drained");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stoppt erst nach dem Webserver, damit keine neuen Berechnungen mehr eintreffen, während die Warteschlange geleert wird.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<InsuranceCalculation> batch = new ArrayList<>(properties.batchSize());
+        long flushIntervalNanos = properties.flushInterval().toNanos();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                InsuranceCalculation first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < properties.batchSize()) {
+                    if (queue.drainTo(batch, properties.batchSize() - batch.size()) == 0) {
+                        long remaining = deadline - System.nanoTime();
+                        InsuranceCalculation next = remaining > 0 && running ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                drainRemaining(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainRemaining(List<InsuranceCalculation> batch) {
+        do {
+            flush(batch);
+            batch.clear();
+        } while (queue.drainTo(batch, properties.batchSize()) > 0);
+    }
+
+    private void flush(List<InsuranceCalculation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch)));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush of {} calculations failed (attempt {}/{})", batch.size(), attempt, MAX_ATTEMPTS, e);
+                batch.forEach(insuranceCalculation -> insuranceCalculation.setId(null));
+            }
+        }
+        droppedCounter.increment(batch.size());
+        log.error("Dropped {} calculations after {} failed write-behind flushes", batch.size(), MAX_ATTEMPTS);
+    }
+}
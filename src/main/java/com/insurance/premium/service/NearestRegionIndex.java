@@ -0,0 +1,231 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.dto.NearestRegionDTO;
+import com.insurance.premium.snapshot.RegionSnapshot;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Räumlicher Index für die Suche nach der nächstgelegenen Region zu einer GPS-Koordinate.
+ * Die Koordinaten aller Regionen aus dem {@link RegionSnapshot} werden als Punkte auf der Einheitskugel in einem
+ * dreidimensionalen k-d-Baum abgelegt. Der Baum ist implizit: Punkte und Datensatznummern liegen in primitiven Arrays,
+ * der Median eines Bereichs ist jeweils sein Wurzelknoten. Die euklidische Distanz auf der Einheitskugel ist monoton
+ * zur Großkreisentfernung, sodass es keine Sonderfälle an Polen oder Datumsgrenze gibt. Eine Suche benötigt kein SQL.
+ */
+@Component
+@Log4j2
+public class NearestRegionIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int DIMENSIONS = 3;
+
+    private final RegionSnapshot snapshot;
+
+    /**
+     * Die Koordinaten (x, y, z) der Punkte, hintereinander je Punkt.
+     */
+    private final double[] coordinates;
+
+    /**
+     * Die Datensatznummer im Snapshot je Punkt.
+     */
+    private final int[] records;
+
+    private final int size;
+
+    /**
+     * Baut den Index aus allen Datensätzen des Snapshots mit gültigen Koordinaten auf.
+     *
+     * @param snapshot Der eingeblendete Regions-Snapshot.
+     */
+    public NearestRegionIndex(RegionSnapshot snapshot) {
+        long start = System.nanoTime();
+        this.snapshot = snapshot;
+        this.coordinates = new double[snapshot.recordCount() * DIMENSIONS];
+        this.records = new int[snapshot.recordCount()];
+
+        int count = 0;
+        for (int record = 0; record < snapshot.recordCount(); record++) {
+            double latitude = snapshot.latitude(record);
+            double longitude = snapshot.longitude(record);
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                continue;
+            }
+            toUnitVector(latitude, longitude, coordinates, count * DIMENSIONS);
+            records[count++] = record;
+        }
+        this.size = count;
+        build(0, size, 0);
+
+        log.info("Nearest region index built with {} locations in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Sucht die nächstgelegene Region zu einer Koordinate.
+     *
+     * @param latitude  Der Breitengrad in Grad.
+     * @param longitude Der Längengrad in Grad.
+     * @return Ein Optional mit der nächstgelegenen Region oder ein leeres Optional, wenn der Index leer ist.
+     */
+    public Optional<NearestRegionDTO> findNearest(double latitude, double longitude) {
+        int record = nearestRecord(latitude, longitude);
+        if (record < 0) {
+            return Optional.empty();
+        }
+        double regionLatitude = snapshot.latitude(record);
+        double regionLongitude = snapshot.longitude(record);
+        return Optional.of(new NearestRegionDTO(
+                "%05d".formatted(snapshot.postcode(record)),
+                snapshot.place(record),
+                snapshot.city(record),
+                snapshot.district(record),
+                snapshot.bundesland(record),
+                regionLatitude,
+                regionLongitude,
+                distanceKm(latitude, longitude, regionLatitude, regionLongitude)));
+    }
+
+    /**
+     * Sucht den Datensatz mit der geringsten Entfernung zu einer Koordinate.
+     *
+     * @param latitude  Der Breitengrad in Grad.
+     * @param longitude Der Längengrad in Grad.
+     * @return Die Datensatznummer im Snapshot oder `-1`, wenn der Index leer ist.
+     */
+    public int nearestRecord(double latitude, double longitude) {
+        double[] query = new double[DIMENSIONS];
+        toUnitVector(latitude, longitude, query, 0);
+        Nearest nearest = new Nearest();
+        search(0, size, 0, query, nearest);
+        return nearest.point < 0 ? -1 : records[nearest.point];
+    }
+
+    /**
+     * @return Die Anzahl der Regionen im Index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Berechnet die Großkreisentfernung zwischen zwei Koordinaten.
+     *
+     * @return Die Entfernung in Kilometern.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double[] points = new double[2 * DIMENSIONS];
+        toUnitVector(latitude1, longitude1, points, 0);
+        toUnitVector(latitude2, longitude2, points, DIMENSIONS);
+        double chord = Math.sqrt(squaredDistance(points, 0, points, DIMENSIONS));
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    /**
+     * Ordnet den Bereich `[from, to)` so, dass der Median bezüglich der Achse in der Mitte liegt,
+     * und verfährt rekursiv mit beiden Hälften und der nächsten Achse.
+     */
+    private void build(int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int median = (from + to) >>> 1;
+        select(from, to - 1, median, axis);
+        int nextAxis = (axis + 1) % DIMENSIONS;
+        build(from, median, nextAxis);
+        build(median + 1, to, nextAxis);
+    }
+
+    private void search(int from, int to, int axis, double[] query, Nearest nearest) {
+        if (from >= to) {
+            return;
+        }
+        int median = (from + to) >>> 1;
+        double distance = squaredDistance(coordinates, median * DIMENSIONS, query, 0);
+        if (distance < nearest.distance) {
+            nearest.distance = distance;
+            nearest.point = median;
+        }
+
+        double delta = query[axis] - coordinates[median * DIMENSIONS + axis];
+        int nextAxis = (axis + 1) % DIMENSIONS;
+        if (delta < 0) {
+            search(from, median, nextAxis, query, nearest);
+            if (delta * delta < nearest.distance) {
+                search(median + 1, to, nextAxis, query, nearest);
+            }
+        } else {
+            search(median + 1, to, nextAxis, query, nearest);
+            if (delta * delta < nearest.distance) {
+                search(from, median, nextAxis, query, nearest);
+            }
+        }
+    }
+
+    /**
+     * Quickselect: ordnet den Bereich `[left, right]` so, dass an Position `k` das Element steht,
+     * das dort bei vollständiger Sortierung nach der Achse stünde.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            int pivot = partition(left, right, (left + right) >>> 1, axis);
+            if (k == pivot) {
+                return;
+            }
+            if (k < pivot) {
+                right = pivot - 1;
+            } else {
+                left = pivot + 1;
+            }
+        }
+    }
+
+    private int partition(int left, int right, int pivotIndex, int axis) {
+        double pivot = coordinates[pivotIndex * DIMENSIONS + axis];
+        swap(pivotIndex, right);
+        int store = left;
+        for (int i = left; i < right; i++) {
+            if (coordinates[i * DIMENSIONS + axis] < pivot) {
+                swap(store++, i);
+            }
+        }
+        swap(right, store);
+        return store;
+    }
+
+    private void swap(int i, int j) {
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double coordinate = coordinates[i * DIMENSIONS + d];
+            coordinates[i * DIMENSIONS + d] = coordinates[j * DIMENSIONS + d];
+            coordinates[j * DIMENSIONS + d] = coordinate;
+        }
+        int record = records[i];
+        records[i] = records[j];
+        records[j] = record;
+    }
+
+    private static double squaredDistance(double[] a, int aOffset, double[] b, int bOffset) {
+        double dx = a[aOffset] - b[bOffset];
+        double dy = a[aOffset + 1] - b[bOffset + 1];
+        double dz = a[aOffset + 2] - b[bOffset + 2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosPhi = Math.cos(phi);
+        target[offset] = cosPhi * Math.cos(lambda);
+        target[offset + 1] = cosPhi * Math.sin(lambda);
+        target[offset + 2] = Math.sin(phi);
+    }
+
+    /**
+     * Der bisher beste Kandidat einer Suche.
+     */
+    private static final class Nearest {
+        private int point = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+    }
+}
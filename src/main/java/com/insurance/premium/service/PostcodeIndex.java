@@ -0,0 +1,66 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.snapshot.RegionSnapshot;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index, der fünfstellige deutsche Postleitzahlen auf Bundesland und Landkreis abbildet.
+ * Die Daten werden direkt aus dem beim Build erzeugten, per Memory-Mapping eingeblendeten {@link RegionSnapshot} gelesen;
+ * beim Start wird weder eine CSV-Datei geparst noch eine Kopie auf dem Heap angelegt.
+ * Gehört eine Postleitzahl zu mehreren Bundesländern oder Landkreisen, gilt der erste Eintrag der Quelldatei.
+ */
+@Component
+@Log4j2
+public class PostcodeIndex {
+
+    private final RegionSnapshot snapshot;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param snapshot Der eingeblendete Regions-Snapshot.
+     */
+    public PostcodeIndex(RegionSnapshot snapshot) {
+        this.snapshot = snapshot;
+        log.info("Postcode index mapped from {} with {} postcodes, {} KiB off-heap",
+                snapshot.file(), snapshot.postcodeCount(), snapshot.mappedBytes() / 1024);
+    }
+
+    /**
+     * Ermittelt das Bundesland zu einer Postleitzahl.
+     *
+     * @param postcode Die fünfstellige Postleitzahl.
+     * @return Das Bundesland oder `null`, wenn die Postleitzahl unbekannt oder ungültig ist.
+     */
+    public BundeslandISO findBundesland(String postcode) {
+        int record = snapshot.findRecord(RegionSnapshot.parsePostcode(postcode));
+        return record < 0 ? null : snapshot.bundesland(record);
+    }
+
+    /**
+     * Ermittelt den Landkreis zu einer Postleitzahl.
+     *
+     * @param postcode Die fünfstellige Postleitzahl.
+     * @return Der Name des Landkreises oder `null`, wenn die Postleitzahl unbekannt oder ungültig ist.
+     */
+    public String findDistrict(String postcode) {
+        int record = snapshot.findRecord(RegionSnapshot.parsePostcode(postcode));
+        return record < 0 ? null : snapshot.district(record);
+    }
+
+    /**
+     * @return Die Anzahl der bekannten Postleitzahlen.
+     */
+    public int size() {
+        return snapshot.postcodeCount();
+    }
+
+    /**
+     * @return Die Größe des eingeblendeten Snapshots in Bytes. Sie belegt keinen Heap, sondern Page-Cache.
+     */
+    public long footprintBytes() {
+        return snapshot.mappedBytes();
+    }
+}
@@ -0,0 +1,48 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zählt die berechneten Prämien je Fahrzeugtyp und Bundesland als Metrik `insurance.premium.calculations`.
+ * Die Zähler werden beim Start für alle Kombinationen registriert, damit auf dem heißen Pfad nur noch
+ * ein Array-Zugriff statt einer Suche in der MeterRegistry anfällt.
+ */
+@Component
+public class PremiumMetrics {
+
+    private final Counter[][] calculations;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param registry Die MeterRegistry, in der die Zähler registriert werden.
+     */
+    public PremiumMetrics(MeterRegistry registry) {
+        VehicleType[] vehicleTypes = VehicleType.values();
+        BundeslandISO[] regions = BundeslandISO.values();
+        calculations = new Counter[vehicleTypes.length][regions.length];
+        for (VehicleType vehicleType : vehicleTypes) {
+            for (BundeslandISO region : regions) {
+                calculations[vehicleType.ordinal()][region.ordinal()] = Counter.builder("insurance.premium.calculations")
+                        .tag("vehicle_type", vehicleType.name())
+                        .tag("bundesland", region.name())
+                        .description("Premiums calculated per vehicle type and federal state")
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * Zählt eine berechnete Prämie.
+     *
+     * @param vehicleType Der Fahrzeugtyp der Berechnung.
+     * @param region      Das Bundesland der Zulassung.
+     */
+    public void recordCalculation(VehicleType vehicleType, BundeslandISO region) {
+        calculations[vehicleType.ordinal()][region.ordinal()].increment();
+    }
+}
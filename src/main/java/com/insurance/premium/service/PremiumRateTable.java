@@ -0,0 +1,182 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Unveränderliche, vorberechnete Prämientabelle eines Tarifs.
+ * Für jede Kombination aus Fahrzeugtyp, Bundesland und Kilometerband wird die Prämie einmalig beim Laden berechnet
+ * und in einem primitiven Array abgelegt, sodass eine Prämienberechnung nur noch ein Array-Zugriff ohne Allokation ist.
+ * Der Index ergibt sich aus `VehicleType`-Ordinal × `BundeslandISO`-Ordinal × Kilometerband.
+ * Jede Tabelle trägt die Version des Tarifs, aus dem sie erzeugt wurde.
+ */
+public final class PremiumRateTable {
+
+    /**
+     * Die Version der Standardtabelle.
+     */
+    public static final String STANDARD_VERSION = "standard";
+
+    /**
+     * Obergrenzen (inklusive) der Kilometerbänder. Alles oberhalb der letzten Grenze fällt in das letzte Band.
+     */
+    private static final int[] STANDARD_KILOMETER_LIMITS = {5000, 10000, 20000};
+
+    /**
+     * Kilometerfaktoren je Band, passend zu {@link #STANDARD_KILOMETER_LIMITS}.
+     */
+    private static final double[] STANDARD_KILOMETER_FACTORS = {0.5, 1.0, 1.5, 2.0};
+
+    /**
+     * Die Standardtabelle auf Basis der Faktoren aus den Enums und der festen Kilometerbänder.
+     */
+    public static final PremiumRateTable STANDARD = new PremiumRateTable(STANDARD_VERSION, standardVehicleFactors(),
+            standardRegionFactors(), STANDARD_KILOMETER_LIMITS, STANDARD_KILOMETER_FACTORS);
+
+    private final String version;
+    private final int[] kilometerLimits;
+    private final int regionCount;
+    private final int bandCount;
+    private final double[] premiums;
+
+    /**
+     * Baut die Tabelle für alle Fahrzeugtypen und Bundesländer auf.
+     *
+     * @param version          Die Version des Tarifs.
+     * @param vehicleFactors   Fahrzeugfaktoren, indiziert nach `VehicleType`-Ordinal.
+     * @param regionFactors    Regionalfaktoren, indiziert nach `BundeslandISO`-Ordinal.
+     * @param kilometerLimits  Aufsteigende Obergrenzen (inklusive) der Kilometerbänder.
+     * @param kilometerFactors Kilometerfaktoren je Band, ein Eintrag mehr als Grenzen.
+     */
+    private PremiumRateTable(String version, double[] vehicleFactors, double[] regionFactors,
+                             int[] kilometerLimits, double[] kilometerFactors) {
+        this.version = version;
+        this.kilometerLimits = kilometerLimits.clone();
+        this.regionCount = regionFactors.length;
+        this.bandCount = kilometerFactors.length;
+        this.premiums = new double[vehicleFactors.length * regionCount * bandCount];
+
+        for (int vehicle = 0; vehicle < vehicleFactors.length; vehicle++) {
+            for (int region = 0; region < regionCount; region++) {
+                for (int band = 0; band < bandCount; band++) {
+                    // Gleiche Reihenfolge der Multiplikation wie bisher, damit die Ergebnisse bitgenau übereinstimmen.
+                    premiums[index(vehicle, region, band)] = kilometerFactors[band] * vehicleFactors[vehicle] * regionFactors[region];
+                }
+            }
+        }
+    }
+
+    /**
+     * Prüft die Faktoren eines Tarifs und baut daraus eine Tabelle auf.
+     *
+     * @param version          Die Version des Tarifs, nicht leer.
+     * @param vehicleFactors   Ein positiver Faktor für jeden Fahrzeugtyp.
+     * @param regionFactors    Ein positiver Faktor für jedes Bundesland.
+     * @param kilometerLimits  Streng aufsteigende Obergrenzen (inklusive) der Kilometerbänder.
+     * @param kilometerFactors Positive Kilometerfaktoren je Band, ein Eintrag mehr als Grenzen.
+     * @return Die Tabelle des Tarifs.
+     * @throws IllegalArgumentException Wenn der Tarif unvollständig oder ungültig ist.
+     */
+    public static PremiumRateTable of(String version, Map<VehicleType, Double> vehicleFactors, Map<BundeslandISO, Double> regionFactors,
+                                      int[] kilometerLimits, double[] kilometerFactors) {
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("Tariff version is missing");
+        }
+        double[] vehicles = new double[VehicleType.values().length];
+        for (VehicleType vehicleType : VehicleType.values()) {
+            vehicles[vehicleType.ordinal()] = requirePositive(vehicleFactors.get(vehicleType), "vehicle factor " + vehicleType);
+        }
+        double[] regions = new double[BundeslandISO.values().length];
+        for (BundeslandISO region : BundeslandISO.values()) {
+            regions[region.ordinal()] = requirePositive(regionFactors.get(region), "region factor " + region);
+        }
+        if (kilometerFactors.length != kilometerLimits.length + 1) {
+            throw new IllegalArgumentException("Expected " + (kilometerLimits.length + 1) + " kilometer factors for "
+                    + kilometerLimits.length + " limits, got " + kilometerFactors.length);
+        }
+        for (int band = 0; band < kilometerFactors.length; band++) {
+            requirePositive(kilometerFactors[band], "kilometer factor of band " + band);
+            if (band > 0 && band < kilometerLimits.length && kilometerLimits[band] <= kilometerLimits[band - 1]) {
+                throw new IllegalArgumentException("Kilometer limits must be strictly ascending, got " + kilometerLimits[band]
+                        + " after " + kilometerLimits[band - 1]);
+            }
+        }
+        return new PremiumRateTable(version, vehicles, regions, kilometerLimits, kilometerFactors);
+    }
+
+    /**
+     * @return Die Version des Tarifs, aus dem die Tabelle erzeugt wurde.
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Liefert die vorberechnete Prämie.
+     *
+     * @param vehicleType      Der Fahrzeugtyp.
+     * @param region           Das Bundesland der Zulassung.
+     * @param annualKilometers Die Anzahl der jährlich gefahrenen Kilometer.
+     * @return Die Versicherungsprämie.
+     */
+    public double premium(VehicleType vehicleType, BundeslandISO region, int annualKilometers) {
+        return premiums[index(vehicleType.ordinal(), region.ordinal(), kilometerBand(annualKilometers))];
+    }
+
+    /**
+     * Bestimmt das Kilometerband für die jährlich gefahrenen Kilometer.
+     *
+     * @param kilometers Die Anzahl der jährlich gefahrenen Kilometer.
+     * @return Der Index des Kilometerbands.
+     */
+    public int kilometerBand(int kilometers) {
+        int band = 0;
+        while (band < kilometerLimits.length && kilometers > kilometerLimits[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * Vergleicht die Prämien zweier Tabellen unabhängig von ihrer Version.
+     *
+     * @param other Die andere Tabelle.
+     * @return Ob beide Tabellen dieselben Kilometerbänder und Prämien haben.
+     */
+    public boolean hasSameRates(PremiumRateTable other) {
+        return Arrays.equals(kilometerLimits, other.kilometerLimits) && Arrays.equals(premiums, other.premiums);
+    }
+
+    private int index(int vehicleOrdinal, int regionOrdinal, int band) {
+        return (vehicleOrdinal * regionCount + regionOrdinal) * bandCount + band;
+    }
+
+    private static double requirePositive(Double factor, String name) {
+        if (factor == null) {
+            throw new IllegalArgumentException("Tariff has no " + name);
+        }
+        if (!(factor > 0) || factor.isInfinite()) {
+            throw new IllegalArgumentException("Tariff " + name + " must be positive and finite, got " + factor);
+        }
+        return factor;
+    }
+
+    private static double[] standardVehicleFactors() {
+        double[] factors = new double[VehicleType.values().length];
+        for (VehicleType vehicleType : VehicleType.values()) {
+            factors[vehicleType.ordinal()] = vehicleType.getVehicleFactor();
+        }
+        return factors;
+    }
+
+    private static double[] standardRegionFactors() {
+        double[] factors = new double[BundeslandISO.values().length];
+        for (BundeslandISO region : BundeslandISO.values()) {
+            factors[region.ordinal()] = region.getRegionFactor();
+        }
+        return factors;
+    }
+}
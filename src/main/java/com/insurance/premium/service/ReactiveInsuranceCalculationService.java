@@ -0,0 +1,248 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.dto.InsuranceCalculationPage;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reaktive Variante des {@link InsuranceCalculationService} für das Profil `reactive`.
+ * Die Prämie wird mit derselben Logik über {@link InsuranceCalculationService#quote(InsuranceCalculationDTO)} berechnet,
+ * gespeichert und gelesen wird dagegen nicht blockierend per R2DBC.
+ * <p>
+ * Die IDs stammen aus derselben Sequenz wie bei Hibernate: Jeder Wert der Sequenz reserviert einen Block von
+ * {@value InsuranceCalculation#ID_ALLOCATION_SIZE} IDs, der bis zum Wert selbst reicht. So überschneiden sich die
+ * IDs nicht mit denen, die Hibernate im selben Schema vergibt.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveInsuranceCalculationService {
+
+    private static final String COLUMNS = "id, annual_kilometers, postcode, registration_office, vehicle_type, calculated_premium, "
+            + "tariff_version";
+    private static final String INSERT = "INSERT INTO insurance_calculation (" + COLUMNS + ", created_at) "
+            + "VALUES (:id, :annualKilometers, :postcode, :registrationOffice, :vehicleType, :calculatedPremium, :tariffVersion, "
+            + "CURRENT_TIMESTAMP)";
+    private static final String UPDATE = "UPDATE insurance_calculation SET annual_kilometers = :annualKilometers, "
+            + "postcode = :postcode, registration_office = :registrationOffice, vehicle_type = :vehicleType, "
+            + "calculated_premium = :calculatedPremium, tariff_version = :tariffVersion WHERE id = :id";
+    private static final String NEXT_ID_BLOCK = "SELECT nextval('insurance_calculation_seq')";
+
+    private final DatabaseClient databaseClient;
+    private final InsuranceCalculationService insuranceCalculationService;
+
+    private long nextId;
+    private long lastId = -1;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param databaseClient              Der DatabaseClient für den Zugriff per R2DBC.
+     * @param insuranceCalculationService Service, dessen Prämienberechnung wiederverwendet wird.
+     */
+    public ReactiveInsuranceCalculationService(DatabaseClient databaseClient, InsuranceCalculationService insuranceCalculationService) {
+        this.databaseClient = databaseClient;
+        this.insuranceCalculationService = insuranceCalculationService;
+    }
+
+    /**
+     * Berechnet die Versicherungsprämie und speichert die Berechnung.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object, das die Details der Versicherungsberechnung enthält.
+     * @return Die gespeicherte Berechnung mit ID und Prämie.
+     */
+    public Mono<InsuranceCalculationDTO> calculateInsurance(InsuranceCalculationDTO insuranceCalculationDTO) {
+        return insert(insuranceCalculationService.quote(insuranceCalculationDTO));
+    }
+
+    /**
+     * Berechnet ein Angebot, ohne es zu speichern.
+     *
+     * @param insuranceCalculationDTO Data Transfer Object, das die Details der Versicherungsberechnung enthält.
+     * @return Das Angebot mit der berechneten Prämie und ohne ID.
+     */
+    public Mono<InsuranceCalculationDTO> quote(InsuranceCalculationDTO insuranceCalculationDTO) {
+        return Mono.fromSupplier(() -> insuranceCalculationService.quote(insuranceCalculationDTO));
+    }
+
+    /**
+     * Speichert ein zuvor berechnetes Angebot. Enthält das Angebot eine Prämie, muss sie mit der neu berechneten übereinstimmen.
+     *
+     * @param insuranceCalculationDTO Das angenommene Angebot.
+     * @return Die gespeicherte Berechnung oder ein leeres Mono, falls sich die Prämie seit dem Angebot geändert hat.
+     */
+    public Mono<InsuranceCalculationDTO> commitQuote(InsuranceCalculationDTO insuranceCalculationDTO) {
+        InsuranceCalculationDTO quote = insuranceCalculationService.quote(insuranceCalculationDTO);
+        if (insuranceCalculationDTO.calculatedPremium() != null && !insuranceCalculationDTO.calculatedPremium().equals(quote.calculatedPremium())) {
+            return Mono.empty();
+        }
+        return insert(quote);
+    }
+
+    /**
+     * Ruft eine Berechnung anhand ihrer ID ab.
+     *
+     * @param id Die ID der Berechnung.
+     * @return Die Berechnung oder ein leeres Mono, falls nicht gefunden.
+     */
+    public Mono<InsuranceCalculationDTO> getById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM insurance_calculation WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveInsuranceCalculationService::toDTO)
+                .one();
+    }
+
+    /**
+     * Ruft eine Seite von Berechnungen per Keyset-Paginierung ab, wie {@link InsuranceCalculationService#getPage}.
+     *
+     * @param filter  Der Filter für die Berechnungen.
+     * @param afterId Die ID der letzten Berechnung der vorherigen Seite oder `null` für die erste Seite.
+     * @param limit   Die maximale Anzahl der Berechnungen pro Seite.
+     * @return Die Seite mit den Berechnungen und dem Cursor für die nächste Seite.
+     */
+    public Mono<InsuranceCalculationPage> getPage(InsuranceCalculationFilter filter, Long afterId, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM insurance_calculation WHERE 1 = 1");
+        condition(sql, parameters, "id >", "afterId", afterId);
+        condition(sql, parameters, "vehicle_type =", "vehicleType", filter.vehicleType() != null ? filter.vehicleType().name() : null);
+        condition(sql, parameters, "registration_office =", "registrationOffice", filter.registrationOffice());
+        condition(sql, parameters, "postcode =", "postcode", filter.postcode());
+        condition(sql, parameters, "calculated_premium >=", "minPremium", filter.minPremium());
+        condition(sql, parameters, "calculated_premium <=", "maxPremium", filter.maxPremium());
+        sql.append(" ORDER BY id LIMIT ").append(limit + 1);
+
+        GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(ReactiveInsuranceCalculationService::toDTO)
+                .all()
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > limit;
+                    List<InsuranceCalculationDTO> items = hasNext ? rows.subList(0, limit) : rows;
+                    return new InsuranceCalculationPage(items, hasNext ? items.get(items.size() - 1).id() : null);
+                });
+    }
+
+    /**
+     * Berechnet die Prämie neu und aktualisiert eine vorhandene Berechnung.
+     *
+     * @param id                      Die ID der vorhandenen Berechnung.
+     * @param insuranceCalculationDTO Data Transfer Object mit den aktualisierten Details.
+     * @return Die aktualisierte Berechnung oder ein leeres Mono, falls es keine Berechnung mit dieser ID gibt.
+     */
+    public Mono<InsuranceCalculationDTO> update(Long id, InsuranceCalculationDTO insuranceCalculationDTO) {
+        InsuranceCalculationDTO quote = insuranceCalculationService.quote(insuranceCalculationDTO);
+        InsuranceCalculationDTO updated = new InsuranceCalculationDTO(id, quote.annualKilometers(), quote.postcode(),
+                quote.registrationOffice(), quote.vehicleType(), quote.calculatedPremium(), quote.tariffVersion());
+        return bind(databaseClient.sql(UPDATE), updated)
+                .fetch()
+                .rowsUpdated()
+                .filter(rows -> rows > 0)
+                .map(rows -> updated);
+    }
+
+    /**
+     * Ändert nur die gesetzten Felder einer vorhandenen Berechnung und berechnet die Prämie neu.
+     * Lesen und Schreiben laufen ohne Sperre nacheinander; bei gleichzeitigen Änderungen gewinnt die zuletzt geschriebene.
+     *
+     * @param id                      Die ID der Berechnung.
+     * @param insuranceCalculationDTO Data Transfer Object, in dem nur die zu ändernden Felder gesetzt sind.
+     * @return Die aktualisierte Berechnung oder ein leeres Mono, falls es keine Berechnung mit dieser ID gibt.
+     */
+    public Mono<InsuranceCalculationDTO> patch(Long id, InsuranceCalculationDTO insuranceCalculationDTO) {
+        return getById(id)
+                .flatMap(existing -> update(id, existing.withChanges(insuranceCalculationDTO)));
+    }
+
+    /**
+     * Löscht eine Berechnung anhand ihrer ID.
+     *
+     * @param id Die ID der zu löschenden Berechnung.
+     * @return Ein Mono, das nach dem Löschen abgeschlossen wird.
+     */
+    public Mono<Void> delete(Long id) {
+        return databaseClient.sql("DELETE FROM insurance_calculation WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    private Mono<InsuranceCalculationDTO> insert(InsuranceCalculationDTO quote) {
+        return nextId().flatMap(id -> {
+            InsuranceCalculationDTO saved = new InsuranceCalculationDTO(id, quote.annualKilometers(), quote.postcode(),
+                    quote.registrationOffice(), quote.vehicleType(), quote.calculatedPremium(), quote.tariffVersion());
+            return bind(databaseClient.sql(INSERT), saved)
+                    .then()
+                    .thenReturn(saved);
+        });
+    }
+
+    /**
+     * Vergibt die nächste ID aus dem aktuellen Block und reserviert bei Bedarf einen neuen Block aus der Sequenz.
+     * Reservieren mehrere Aufrufer gleichzeitig einen Block, gewinnt der letzte; die übrigen IDs bleiben ungenutzt.
+     */
+    private Mono<Long> nextId() {
+        synchronized (this) {
+            if (nextId <= lastId) {
+                return Mono.just(nextId++);
+            }
+        }
+        return databaseClient.sql(NEXT_ID_BLOCK)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(blockEnd -> {
+                    synchronized (this) {
+                        long id = Math.max(1, blockEnd - InsuranceCalculation.ID_ALLOCATION_SIZE + 1);
+                        nextId = id + 1;
+                        lastId = blockEnd;
+                        return id;
+                    }
+                });
+    }
+
+    private static void condition(StringBuilder sql, Map<String, Object> parameters, String column, String name, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" :").append(name);
+            parameters.put(name, value);
+        }
+    }
+
+    private static GenericExecuteSpec bind(GenericExecuteSpec spec, InsuranceCalculationDTO dto) {
+        spec = bindNullable(spec, "id", dto.id(), Long.class);
+        spec = bindNullable(spec, "annualKilometers", dto.annualKilometers(), Integer.class);
+        spec = bindNullable(spec, "postcode", dto.postcode(), String.class);
+        spec = bindNullable(spec, "registrationOffice", dto.registrationOffice(), String.class);
+        spec = bindNullable(spec, "vehicleType", dto.vehicleType() != null ? dto.vehicleType().name() : null, String.class);
+        spec = bindNullable(spec, "calculatedPremium", dto.calculatedPremium(), Double.class);
+        return bindNullable(spec, "tariffVersion", dto.tariffVersion(), String.class);
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static InsuranceCalculationDTO toDTO(Readable row) {
+        String vehicleType = row.get("vehicle_type", String.class);
+        return new InsuranceCalculationDTO(
+                row.get("id", Long.class),
+                row.get("annual_kilometers", Integer.class),
+                row.get("postcode", String.class),
+                row.get("registration_office", String.class),
+                vehicleType != null ? VehicleType.valueOf(vehicleType) : null,
+                row.get("calculated_premium", Double.class),
+                row.get("tariff_version", String.class)
+        );
+    }
+}
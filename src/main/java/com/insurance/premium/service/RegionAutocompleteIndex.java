@@ -0,0 +1,158 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.dto.RegionSuggestionDTO;
+import com.insurance.premium.snapshot.RegionSnapshot;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Index für die Autovervollständigung von Postleitzahlen und Städten.
+ * Beim Start werden aus dem {@link RegionSnapshot} zwei sortierte Arrays aufgebaut: die verschiedenen Postleitzahlen
+ * als `int[]` und die klein geschriebenen Städtenamen je Landkreis als `String[]`. Eine Suche findet den Beginn
+ * des Präfixbereichs per binärer Suche und liest danach nur die angeforderte Anzahl von Einträgen;
+ * außer dem Ergebnis wird nur das klein geschriebene Präfix angelegt.
+ * Fehlt für einen Datensatz die Stadt, wird der Ort verwendet.
+ */
+@Component
+@Log4j2
+public class RegionAutocompleteIndex {
+
+    private final RegionSnapshot snapshot;
+
+    private final int[] postcodes;
+    private final int[] postcodeRecords;
+
+    private final String[] cityKeys;
+    private final int[] cityRecords;
+
+    /**
+     * Baut den Index aus dem Snapshot auf.
+     *
+     * @param snapshot Der eingeblendete Regions-Snapshot.
+     */
+    public RegionAutocompleteIndex(RegionSnapshot snapshot) {
+        long start = System.nanoTime();
+        this.snapshot = snapshot;
+
+        // Die Datensätze des Snapshots sind nach Postleitzahl sortiert; der erste Datensatz einer Postleitzahl vertritt sie.
+        this.postcodes = new int[snapshot.postcodeCount()];
+        this.postcodeRecords = new int[snapshot.postcodeCount()];
+        int postcodeCount = 0;
+        for (int record = 0; record < snapshot.recordCount(); record++) {
+            int postcode = snapshot.postcode(record);
+            if (postcodeCount == 0 || postcodes[postcodeCount - 1] != postcode) {
+                postcodes[postcodeCount] = postcode;
+                postcodeRecords[postcodeCount++] = record;
+            }
+        }
+
+        String[] folded = new String[snapshot.recordCount()];
+        List<Integer> named = new ArrayList<>();
+        for (int record = 0; record < snapshot.recordCount(); record++) {
+            String city = city(record);
+            if (city != null) {
+                folded[record] = city.toLowerCase(Locale.ROOT);
+                named.add(record);
+            }
+        }
+        named.sort(Comparator.<Integer, String>comparing(record -> folded[record])
+                .thenComparing(record -> snapshot.district(record), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingInt(record -> record));
+
+        List<Integer> distinct = new ArrayList<>();
+        for (Integer record : named) {
+            Integer previous = distinct.isEmpty() ? null : distinct.get(distinct.size() - 1);
+            if (previous == null || !folded[previous].equals(folded[record])
+                    || !Objects.equals(snapshot.district(previous), snapshot.district(record))) {
+                distinct.add(record);
+            }
+        }
+        this.cityKeys = new String[distinct.size()];
+        this.cityRecords = new int[distinct.size()];
+        for (int i = 0; i < distinct.size(); i++) {
+            cityRecords[i] = distinct.get(i);
+            cityKeys[i] = folded[cityRecords[i]].intern();
+        }
+
+        log.info("Autocomplete index built with {} postcodes and {} cities in {} ms",
+                postcodes.length, cityKeys.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Sucht Vorschläge zu einer Eingabe. Besteht die Eingabe nur aus Ziffern, wird nach Postleitzahlen gesucht,
+     * sonst nach Städten; Groß-/Kleinschreibung wird ignoriert.
+     *
+     * @param prefix Der Anfang der Postleitzahl oder des Städtenamens.
+     * @param limit  Die maximale Anzahl der Vorschläge.
+     * @return Die Vorschläge, aufsteigend nach Postleitzahl bzw. Städtename sortiert.
+     */
+    public List<RegionSuggestionDTO> suggest(String prefix, int limit) {
+        String trimmed = prefix.strip();
+        if (trimmed.isEmpty()) {
+            return List.of();
+        }
+        return isDigits(trimmed) ? suggestPostcodes(trimmed, limit) : suggestCities(trimmed.toLowerCase(Locale.ROOT), limit);
+    }
+
+    private List<RegionSuggestionDTO> suggestPostcodes(String prefix, int limit) {
+        if (prefix.length() > 5) {
+            return List.of();
+        }
+        int scale = (int) Math.pow(10, 5 - prefix.length());
+        int from = Integer.parseInt(prefix) * scale;
+        int to = from + scale;
+
+        int index = Arrays.binarySearch(postcodes, from);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        List<RegionSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, 16));
+        for (; index < postcodes.length && postcodes[index] < to && suggestions.size() < limit; index++) {
+            suggestions.add(toSuggestion(postcodeRecords[index]));
+        }
+        return suggestions;
+    }
+
+    private List<RegionSuggestionDTO> suggestCities(String prefix, int limit) {
+        int index = Arrays.binarySearch(cityKeys, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Bei mehreren Landkreisen mit gleichem Städtenamen zum ersten Eintrag zurückgehen.
+            while (index > 0 && cityKeys[index - 1].equals(prefix)) {
+                index--;
+            }
+        }
+        List<RegionSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, 16));
+        for (; index < cityKeys.length && cityKeys[index].startsWith(prefix) && suggestions.size() < limit; index++) {
+            suggestions.add(toSuggestion(cityRecords[index]));
+        }
+        return suggestions;
+    }
+
+    private RegionSuggestionDTO toSuggestion(int record) {
+        return new RegionSuggestionDTO("%05d".formatted(snapshot.postcode(record)), city(record),
+                snapshot.district(record), snapshot.bundesland(record));
+    }
+
+    private String city(int record) {
+        String city = snapshot.city(record);
+        return city != null ? city : snapshot.place(record);
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
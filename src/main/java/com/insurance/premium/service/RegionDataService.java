@@ -1,80 +1,457 @@
 package com.insurance.premium.service;
 
-import com.insurance.premium.entity.Location;
-import com.insurance.premium.entity.RegionData;
-import com.insurance.premium.repository.RegionDataRepository;
+import com.insurance.premium.entity.RegionDataVersion;
+import com.insurance.premium.repository.RegionDataVersionRepository;
+import com.insurance.premium.util.CsvReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.io.BufferedReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service-Klasse zur Verwaltung von RegionData-Entitäten.
  * Diese Klasse enthält Logik zum Massenimport von Regionsdaten aus einer CSV-Datei.
+ * Auf PostgreSQL werden die Zeilen per `COPY FROM STDIN` geladen, auf anderen Datenbanken per JDBC-Batch.
+ * Alternativ gleicht {@link #syncFromCSV(Resource)} die Tabelle anhand einer Prüfsumme inkrementell mit der Datei ab.
+ * Dauer und Zeilenzahl jedes Imports werden als Metriken `region.data.import` und `region.data.import.rows` erfasst.
  */
 @Service
 @Log4j2
 public class RegionDataService {
 
-    private final RegionDataRepository regionDataRepository;
+    private static final String DATASET = "postcodes";
+    private static final int BATCH_SIZE = 1000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final long SYNC_LOCK_KEY = 0x7265_6769_6f6eL;
+    private static final String INSERT_REGION_DATA = "INSERT INTO region_data "
+            + "(bundesland_iso, bundesland, land, stadt, postleitzahl, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMN_COUNT = 16;
+    private static final int COLUMN_BUNDESLAND_ISO = 1;
+    private static final int COLUMN_BUNDESLAND = 2;
+    private static final int COLUMN_LAND = 4;
+    private static final int COLUMN_STADT = 5;
+    private static final int COLUMN_POSTLEITZAHL = 6;
+    private static final int COLUMN_LATITUDE = 10;
+    private static final int COLUMN_LONGITUDE = 11;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RegionDataVersionRepository regionDataVersionRepository;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * Konstruktor zur Injektion des RegionDataRepository.
+     * Konstruktor zur Injektion von Abhängigkeiten.
      *
-     * @param regionDataRepository Repository für die RegionData-Entitäten.
+     * @param jdbcTemplate                Das JdbcTemplate für den Massenimport.
+     * @param regionDataVersionRepository Repository für den Stand der importierten Regionsdaten.
+     * @param meterRegistry               Die MeterRegistry für Dauer und Zeilenzahl der Importe.
      */
-    public RegionDataService(RegionDataRepository regionDataRepository) {
-        this.regionDataRepository = regionDataRepository;
+    public RegionDataService(JdbcTemplate jdbcTemplate, RegionDataVersionRepository regionDataVersionRepository,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.regionDataVersionRepository = regionDataVersionRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * Führt einen Massenimport von RegionData-Entitäten aus einer CSV-Datei durch.
-     * Die CSV-Datei wird zeilenweise gelesen und die Daten werden in die Datenbank eingefügt.
+     * Die CSV-Datei wird gestreamt gelesen und die Daten werden in die Datenbank eingefügt.
      *
-     * @param csvFilePath Der Pfad zur CSV-Datei, die die RegionData-Daten enthält.
+     * @param csvFile Die CSV-Datei, die die RegionData-Daten enthält. Sie wird als Stream gelesen und darf daher auch in einem Jar liegen.
      */
     @Transactional
-    public void bulkInsertFromCSV(Path csvFilePath) {
-        try (BufferedReader reader = Files.newBufferedReader(csvFilePath)) {
-            String line;
-            List<RegionData> regionDataList = new ArrayList<>();
-            reader.readLine();
-            while ((line = reader.readLine()) != null) {
-                String[] columns = line.split(",");
-
-                if (columns.length < 16) {
-                    log.error("this line of csv maybe invalid: {}", line);
-                    continue;
+    public void bulkInsertFromCSV(Resource csvFile) {
+        long start = System.nanoTime();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(csvFile.getInputStream(), StandardCharsets.UTF_8))) {
+            csv.next();
+            long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> connection.isWrapperFor(PGConnection.class)
+                    ? copyInsert(connection, csv)
+                    : batchInsert(connection, csv));
+
+            recordImport("bulk", "success", start, rows);
+            long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("Imported {} region rows in {} ms ({} rows/s)", rows, elapsedMillis, rows * 1000 / elapsedMillis);
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            recordImport("bulk", "failure", start, 0);
+            log.error("Import of region data from {} failed", csvFile, e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    /**
+     * Gleicht die RegionData-Entitäten inkrementell mit einer CSV-Datei ab.
+     * Stimmt die Prüfsumme der Datei mit der des zuletzt importierten Stands überein, wird nichts weiter gelesen.
+     * Gibt es noch keinen Stand und ist die Tabelle leer, wird die Datei vollständig importiert; andernfalls werden nur
+     * die Unterschiede als Einfügungen, Aktualisierungen und Löschungen angewendet, sodass auch eine bisher per
+     * `reload` befüllte Tabelle nicht doppelt befüllt wird.
+     * Auf PostgreSQL hält der Abgleich bis zum Ende der Transaktion eine Advisory-Sperre, damit bei einem Rolling
+     * Restart nicht mehrere Knoten gleichzeitig abgleichen; ein wartender Knoten sieht danach den neuen Stand.
+     *
+     * @param csvFile Die CSV-Datei, die die RegionData-Daten enthält. Sie wird als Stream gelesen und darf daher auch in einem Jar liegen.
+     */
+    @Transactional
+    public void syncFromCSV(Resource csvFile) {
+        long start = System.nanoTime();
+        try {
+            String contentHash = contentHash(csvFile);
+            lockSync();
+            RegionDataVersion version = regionDataVersionRepository.findById(DATASET).orElse(null);
+            if (version != null && version.getContentHash().equals(contentHash)) {
+                recordImport("sync", "skipped", start, 0);
+                log.info("Region data version {} is up to date, skipping import", version.getVersion());
+                return;
+            }
+
+            boolean fullImport = version == null && isRegionDataEmpty();
+            long rows;
+            try (CsvReader csv = new CsvReader(new InputStreamReader(csvFile.getInputStream(), StandardCharsets.UTF_8))) {
+                csv.next();
+                rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> fullImport
+                        ? (connection.isWrapperFor(PGConnection.class) ? copyInsert(connection, csv) : batchInsert(connection, csv))
+                        : applyDiff(connection, csv));
+            }
+
+            RegionDataVersion synced = version != null ? version : new RegionDataVersion();
+            synced.setDataset(DATASET);
+            synced.setContentHash(contentHash);
+            synced.setVersion(version != null ? version.getVersion() + 1 : 1L);
+            synced.setRowCount(rows);
+            synced.setImportedAt(Instant.now());
+            regionDataVersionRepository.save(synced);
+
+            recordImport("sync", "success", start, rows);
+            log.info("Region data synced to version {} with {} rows in {} ms",
+                    synced.getVersion(), rows, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            recordImport("sync", "failure", start, 0);
+            log.error("Sync of region data from {} failed", csvFile, e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    /**
+     * Sperrt den Abgleich auf PostgreSQL bis zum Ende der laufenden Transaktion für andere Knoten.
+     * Andere Datenbanken werden nur lokal mit einem einzelnen Knoten betrieben und brauchen keine Sperre.
+     */
+    private void lockSync() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                    lock.setLong(1, SYNC_LOCK_KEY);
+                    lock.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    private boolean isRegionDataEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.query("SELECT 1 FROM region_data LIMIT 1", ResultSet::next));
+    }
+
+    /**
+     * Erfasst die Dauer eines Imports und die Anzahl der gelesenen Zeilen.
+     *
+     * @param mode    Die Art des Imports, `bulk` oder `sync`.
+     * @param outcome Das Ergebnis des Imports, `success`, `skipped` oder `failure`.
+     * @param start   Der Startzeitpunkt aus {@link System#nanoTime()}.
+     * @param rows    Die Anzahl der Zeilen in der Datei.
+     */
+    private void recordImport(String mode, String outcome, long start, long rows) {
+        Timer.builder("region.data.import")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .description("Duration of region data imports from CSV")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter.builder("region.data.import.rows")
+                .tag("mode", mode)
+                .description("CSV rows read by region data imports")
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
+    /**
+     * Vergleicht die gespeicherten Zeilen mit der Datei und wendet nur die Unterschiede an.
+     * Zeilen werden über Postleitzahl, Landkreis und Stadt einander zugeordnet; innerhalb dieser Gruppe bleiben
+     * identische Zeilen unverändert, übrige Paare werden aktualisiert und Überhänge eingefügt oder gelöscht.
+     *
+     * @return Die Anzahl der Zeilen in der Datei.
+     */
+    private long applyDiff(Connection connection, CsvReader csv) throws SQLException {
+        Map<String, List<StoredRegionRow>> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT id, bundesland_iso, bundesland, land, stadt, postleitzahl, latitude, longitude FROM region_data",
+                resultSet -> {
+                    RegionRow row = new RegionRow(resultSet.getString("bundesland_iso"), resultSet.getString("bundesland"),
+                            resultSet.getString("land"), resultSet.getString("stadt"), resultSet.getString("postleitzahl"),
+                            resultSet.getDouble("latitude"), resultSet.getDouble("longitude"));
+                    stored.computeIfAbsent(row.key(), key -> new ArrayList<>())
+                            .add(new StoredRegionRow(resultSet.getLong("id"), row));
+                });
+
+        long rows = 0;
+        List<RegionRow> inserts = new ArrayList<>();
+        List<StoredRegionRow> deletes = new ArrayList<>();
+        List<StoredRegionRow> updates = new ArrayList<>();
+        Map<String, List<RegionRow>> incoming = new HashMap<>();
+        RegionRow row;
+        while ((row = readRow(csv)) != null) {
+            incoming.computeIfAbsent(row.key(), key -> new ArrayList<>()).add(row);
+            rows++;
+        }
+
+        for (Map.Entry<String, List<RegionRow>> group : incoming.entrySet()) {
+            List<RegionRow> fileRows = group.getValue();
+            List<StoredRegionRow> changed = new ArrayList<>();
+            for (StoredRegionRow storedRow : stored.getOrDefault(group.getKey(), List.of())) {
+                if (!fileRows.remove(storedRow.row())) {
+                    changed.add(storedRow);
                 }
+            }
+            int paired = Math.min(changed.size(), fileRows.size());
+            for (int i = 0; i < paired; i++) {
+                updates.add(new StoredRegionRow(changed.get(i).id(), fileRows.get(i)));
+            }
+            deletes.addAll(changed.subList(paired, changed.size()));
+            inserts.addAll(fileRows.subList(paired, fileRows.size()));
+            stored.remove(group.getKey());
+        }
+        stored.values().forEach(deletes::addAll);
+
+        updateRows(updates);
+        deleteRows(deletes);
+        insertRows(connection, inserts);
+        log.info("Region data diff applied: {} inserted, {} updated, {} deleted", inserts.size(), updates.size(), deletes.size());
+        return rows;
+    }
+
+    private void updateRows(List<StoredRegionRow> updates) {
+        jdbcTemplate.batchUpdate("UPDATE region_data SET bundesland_iso = ?, bundesland = ?, land = ?, stadt = ?, postleitzahl = ?, "
+                        + "latitude = ?, longitude = ? WHERE id = ?",
+                updates, BATCH_SIZE, (statement, update) -> {
+                    setRow(statement, update.row());
+                    statement.setLong(8, update.id());
+                });
+    }
+
+    private void deleteRows(List<StoredRegionRow> deletes) {
+        jdbcTemplate.batchUpdate("DELETE FROM region_data WHERE id = ?",
+                deletes, BATCH_SIZE, (statement, delete) -> statement.setLong(1, delete.id()));
+    }
+
+    private void insertRows(Connection connection, List<RegionRow> inserts) throws SQLException {
+        try (PreparedStatement regions = connection.prepareStatement(INSERT_REGION_DATA)) {
+            for (int from = 0; from < inserts.size(); from += BATCH_SIZE) {
+                insertBatch(regions, new ArrayList<>(inserts.subList(from, Math.min(from + BATCH_SIZE, inserts.size()))));
+            }
+        }
+    }
 
-                RegionData regionData = new RegionData();
+    private static String contentHash(Resource csvFile) throws IOException {
+        try (InputStream input = new DigestInputStream(csvFile.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            input.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) input).getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-                regionData.setBundeslandIso(columns[1]);
-                regionData.setBundesland(columns[2]);
-                regionData.setLand(columns[4]);
-                regionData.setStadt(columns[5]);
-                regionData.setPostleitzahl(columns[6]);
+    /**
+     * Lädt die Zeilen per `COPY FROM STDIN` direkt in `region_data`; die IDs vergibt die Identity-Spalte.
+     */
+    private long copyInsert(Connection connection, CsvReader csv) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY region_data (bundesland_iso, bundesland, land, stadt, postleitzahl, latitude, longitude) "
+                        + "FROM STDIN WITH (FORMAT csv)");
+        long rows = 0;
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            RegionRow row;
+            while ((row = readRow(csv)) != null) {
+                row.appendCsv(buffer);
+                rows++;
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        return rows;
+    }
 
-                Location location = new Location(Double.valueOf(columns[10]), Double.valueOf(columns[11]));
-                regionData.setLocation(location);
+    /**
+     * Fügt die Zeilen blockweise per JDBC-Batch ein.
+     */
+    private long batchInsert(Connection connection, CsvReader csv) throws SQLException {
+        long rows = 0;
+        List<RegionRow> batch = new ArrayList<>(BATCH_SIZE);
+        try (PreparedStatement regions = connection.prepareStatement(INSERT_REGION_DATA)) {
+            RegionRow row;
+            while ((row = readRow(csv)) != null) {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    rows += insertBatch(regions, batch);
+                }
+            }
+            rows += insertBatch(regions, batch);
+        }
+        return rows;
+    }
+
+    private int insertBatch(PreparedStatement regions, List<RegionRow> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (RegionRow row : batch) {
+            setRow(regions, row);
+            regions.addBatch();
+        }
+        regions.executeBatch();
 
-                regionDataList.add(regionData);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
 
-                if (regionDataList.size() % 1000 == 0) {
-                    regionDataRepository.saveAll(regionDataList);
-                    regionDataList.clear();
+    /**
+     * Liest die nächste gültige Zeile. Ungültige Zeilen werden protokolliert und übersprungen.
+     *
+     * @return Die nächste Zeile oder `null` am Ende der Datei.
+     */
+    private RegionRow readRow(CsvReader csv) {
+        try {
+            while (csv.next()) {
+                if (csv.columnCount() < COLUMN_COUNT) {
+                    log.error("this line of csv maybe invalid: record {}", csv.recordNumber());
+                    continue;
+                }
+                try {
+                    return new RegionRow(
+                            emptyToNull(csv.get(COLUMN_BUNDESLAND_ISO)),
+                            emptyToNull(csv.get(COLUMN_BUNDESLAND)),
+                            emptyToNull(csv.get(COLUMN_LAND)),
+                            emptyToNull(csv.get(COLUMN_STADT)),
+                            emptyToNull(csv.get(COLUMN_POSTLEITZAHL)),
+                            Double.parseDouble(csv.get(COLUMN_LATITUDE)),
+                            Double.parseDouble(csv.get(COLUMN_LONGITUDE)));
+                } catch (NumberFormatException e) {
+                    log.error("this line of csv maybe invalid: record {} has no valid coordinates", csv.recordNumber());
                 }
             }
-            if (!regionDataList.isEmpty()) {
-                regionDataRepository.saveAll(regionDataList);
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void setRow(PreparedStatement statement, RegionRow row) throws SQLException {
+        setNullable(statement, 1, row.bundeslandIso());
+        setNullable(statement, 2, row.bundesland());
+        setNullable(statement, 3, row.land());
+        setNullable(statement, 4, row.stadt());
+        setNullable(statement, 5, row.postleitzahl());
+        statement.setDouble(6, row.latitude());
+        statement.setDouble(7, row.longitude());
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Eine importierte Zeile der CSV-Datei.
+     */
+    private record RegionRow(String bundeslandIso, String bundesland, String land, String stadt, String postleitzahl,
+                             double latitude, double longitude) {
+
+        /**
+         * @return Der Schlüssel, über den Zeilen beim inkrementellen Abgleich einander zugeordnet werden.
+         */
+        String key() {
+            return postleitzahl + '|' + land + '|' + stadt;
+        }
+
+        /**
+         * Hängt die Zeile im CSV-Format von `COPY` an; `null` wird als leeres, nicht zitiertes Feld geschrieben.
+         */
+        void appendCsv(StringBuilder buffer) {
+            appendQuoted(buffer, bundeslandIso).append(',');
+            appendQuoted(buffer, bundesland).append(',');
+            appendQuoted(buffer, land).append(',');
+            appendQuoted(buffer, stadt).append(',');
+            appendQuoted(buffer, postleitzahl).append(',');
+            buffer.append(latitude).append(',').append(longitude).append('\n');
+        }
+
+        private static StringBuilder appendQuoted(StringBuilder buffer, String value) {
+            if (value == null) {
+                return buffer;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            return buffer.append('"');
         }
     }
+
+    /**
+     * Eine gespeicherte Zeile mit ihrer ID aus `region_data`.
+     */
+    private record StoredRegionRow(long id, RegionRow row) {
+    }
 }
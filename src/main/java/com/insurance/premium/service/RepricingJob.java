@@ -0,0 +1,401 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.CacheConfig;
+import com.insurance.premium.config.RepricingProperties;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.RepricingStatusDTO;
+import com.insurance.premium.entity.RepricingCheckpoint;
+import com.insurance.premium.entity.RepricingCheckpoint.State;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.repository.RepricingCheckpointRepository;
+import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bewertet alle gespeicherten Versicherungsberechnungen mit dem aktiven Tarif neu, etwa nach einem Tarifwechsel.
+ * <p>
+ * Die Tabelle wird per Keyset-Paginierung in Blöcken aufsteigend nach ID gelesen; es werden nur Zeilen gelesen,
+ * die noch nicht mit der Version des Tarifs bewertet wurden. Die Prämien eines Blocks werden parallel auf einem
+ * eigenen ForkJoinPool berechnet und per JDBC-Batch geschrieben. In derselben Transaktion wird der Fortschritt als
+ * {@link RepricingCheckpoint} gespeichert, sodass eine abgebrochene Neubewertung ab dem letzten Block fortgesetzt wird.
+ * <p>
+ * Ein Lauf bewertet alle Zeilen mit demselben Tarifstand. Wird währenddessen ein neuer Tarif aktiviert, beginnt die
+ * Neubewertung mit dem neuen Tarif von vorn. Ein Update schreibt nur Zeilen, die nicht bereits die Version des Tarifs
+ * tragen, damit gleichzeitige Änderungen über die API nicht mit einer veralteten Eingabe überschrieben werden.
+ * <p>
+ * Auf PostgreSQL hält ein Lauf eine Advisory-Sperre auf Sitzungsebene über eine eigene Verbindung. Nach einem
+ * Rolling Deploy setzt so nur ein Knoten den Checkpoint fort; die übrigen beenden ihren Lauf mit `SKIPPED`.
+ */
+@Component
+@Log4j2
+public class RepricingJob implements SmartLifecycle {
+
+    /**
+     * Der Schlüssel des Checkpoints der Neubewertung.
+     */
+    static final String JOB = "insurance_calculation";
+
+    private static final String PENDING = " FROM insurance_calculation WHERE id > ? AND (tariff_version IS NULL OR tariff_version <> ?)";
+    private static final String COUNT_PENDING = "SELECT COUNT(*)" + PENDING;
+    private static final String SELECT_PENDING = "SELECT id, annual_kilometers, postcode, registration_office, vehicle_type"
+            + PENDING + " ORDER BY id LIMIT ?";
+    private static final String UPDATE_PREMIUM = "UPDATE insurance_calculation SET calculated_premium = ?, tariff_version = ? "
+            + "WHERE id = ? AND (tariff_version IS NULL OR tariff_version <> ?)";
+    private static final long RUN_LOCK_KEY = 0x7265_7072_6963L;
+    private static final RepricingStatusDTO IDLE = new RepricingStatusDTO("IDLE", null, 0, 0, 0, null, 0, null);
+
+    private static final RowMapper<InsuranceCalculationDTO> ROW_MAPPER = (resultSet, rowNum) -> {
+        String vehicleType = resultSet.getString(5);
+        return new InsuranceCalculationDTO(
+                resultSet.getLong(1),
+                resultSet.getObject(2, Integer.class),
+                resultSet.getString(3),
+                resultSet.getString(4),
+                vehicleType != null ? VehicleType.valueOf(vehicleType) : null,
+                null,
+                null);
+    };
+
+    private final RepricingProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RepricingCheckpointRepository checkpointRepository;
+    private final InsuranceCalculationService insuranceCalculationService;
+    private final TariffEngine tariffEngine;
+    private final CacheManager cacheManager;
+    private final boolean virtualThreads;
+
+    private final AtomicReference<RepricingStatusDTO> status = new AtomicReference<>(IDLE);
+    private final AtomicBoolean active = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param properties                  Die Einstellungen für die Neubewertung.
+     * @param jdbcTemplate                Das JdbcTemplate zum Lesen der Blöcke und für die Batch-Updates.
+     * @param transactionManager          Der TransactionManager für die Transaktion je Block.
+     * @param checkpointRepository        Repository für den Fortschritt der Neubewertung.
+     * @param insuranceCalculationService Service, dessen Prämienberechnung wiederverwendet wird.
+     * @param tariffEngine                Die Verwaltung des aktiven Tarifs.
+     * @param cacheManager                Der CacheManager, aus dessen Cache neu bewertete Berechnungen entfernt werden.
+     * @param environment                 Die Umgebung, aus der gelesen wird, ob virtuelle Threads aktiviert sind.
+     */
+    public RepricingJob(RepricingProperties properties, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        RepricingCheckpointRepository checkpointRepository, InsuranceCalculationService insuranceCalculationService,
+                        TariffEngine tariffEngine, CacheManager cacheManager, Environment environment) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.insuranceCalculationService = insuranceCalculationService;
+        this.tariffEngine = tariffEngine;
+        this.cacheManager = cacheManager;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * @return Der Fortschritt der laufenden oder der zuletzt beendeten Neubewertung.
+     */
+    public RepricingStatusDTO status() {
+        return status.get();
+    }
+
+    /**
+     * Startet die Neubewertung im Hintergrund. Gibt es einen unvollständigen Checkpoint für den aktiven Tarif,
+     * wird dort fortgesetzt.
+     *
+     * @return Ob die Neubewertung gestartet wurde; `false`, wenn bereits eine läuft.
+     */
+    public synchronized boolean startRepricing() {
+        if (worker != null && worker.isAlive()) {
+            return false;
+        }
+        stopRequested = false;
+        RepricingStatusDTO previous = status.get();
+        status.set(new RepricingStatusDTO("STARTING", tariffEngine.current().version(), previous.processedRows(),
+                previous.skippedRows(), previous.totalRows(), previous.lastId(), 0, null));
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        worker = builder.name("repricing").start(this::reprice);
+        return true;
+    }
+
+    /**
+     * Führt die Neubewertung im aufrufenden Thread aus, bis alle Zeilen bewertet sind, sie fehlschlägt oder
+     * das Herunterfahren sie unterbricht. Hält ein anderer Knoten die Sperre der Neubewertung, endet sie sofort
+     * mit `SKIPPED`.
+     *
+     * @return Der Fortschritt am Ende der Neubewertung.
+     * @throws IllegalStateException Wenn bereits eine Neubewertung läuft.
+     */
+    public RepricingStatusDTO reprice() {
+        if (!active.compareAndSet(false, true)) {
+            throw new IllegalStateException("Repricing is already running");
+        }
+        try (RunLock lock = RunLock.acquire(jdbcTemplate.getDataSource())) {
+            if (!lock.acquired()) {
+                log.info("Repricing is running on another node, skipping");
+                RepricingStatusDTO previous = status.get();
+                status.set(new RepricingStatusDTO("SKIPPED", tariffEngine.current().version(), previous.processedRows(),
+                        previous.skippedRows(), previous.totalRows(), previous.lastId(), 0, null));
+                return status.get();
+            }
+            PremiumRateTable tariff = tariffEngine.current();
+            while (!run(tariff)) {
+                log.info("Tariff changed from {} to {} during repricing, restarting", tariff.version(), tariffEngine.current().version());
+                tariff = tariffEngine.current();
+            }
+            return status.get();
+        } catch (SQLException e) {
+            log.error("Cannot take the repricing lock", e);
+            RepricingStatusDTO previous = status.get();
+            status.set(new RepricingStatusDTO("FAILED", tariffEngine.current().version(), previous.processedRows(),
+                    previous.skippedRows(), previous.totalRows(), previous.lastId(), 0, null));
+            return status.get();
+        } finally {
+            active.set(false);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (properties.resumeOnStartup() && checkpointRepository.findById(JOB)
+                .filter(checkpoint -> checkpoint.getState() == State.RUNNING)
+                .isPresent()) {
+            log.info("Resuming interrupted repricing");
+            startRepricing();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopRequested = true;
+        Thread current;
+        synchronized (this) {
+            current = worker;
+        }
+        if (current != null) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Bewertet alle offenen Zeilen mit dem Tarif neu.
+     *
+     * @return `false`, wenn währenddessen ein anderer Tarif aktiviert wurde und neu begonnen werden muss.
+     */
+    private boolean run(PremiumRateTable tariff) {
+        RepricingCheckpoint checkpoint = checkpointRepository.findById(JOB)
+                .filter(existing -> existing.getState() != State.COMPLETED && existing.getTariffVersion().equals(tariff.version()))
+                .orElseGet(() -> newCheckpoint(tariff));
+        if (checkpoint.getLastId() > 0) {
+            log.info("Resuming repricing with tariff {} after id {} ({} rows done)", tariff.version(), checkpoint.getLastId(),
+                    checkpoint.getProcessedRows() + checkpoint.getSkippedRows());
+        }
+        long doneBefore = checkpoint.getProcessedRows() + checkpoint.getSkippedRows();
+        long total = doneBefore + jdbcTemplate.queryForObject(COUNT_PENDING, Long.class, checkpoint.getLastId(), tariff.version());
+        long start = System.nanoTime();
+        long lastLog = start;
+        int parallelism = properties.parallelism() > 0 ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            publish("RUNNING", tariff, checkpoint, total, doneBefore, start);
+            while (!stopRequested) {
+                if (tariffEngine.current() != tariff) {
+                    return false;
+                }
+                List<InsuranceCalculationDTO> rows = jdbcTemplate.query(SELECT_PENDING, ROW_MAPPER,
+                        checkpoint.getLastId(), tariff.version(), properties.chunkSize());
+                if (rows.isEmpty()) {
+                    checkpoint.setState(State.COMPLETED);
+                    checkpoint.setUpdatedAt(Instant.now());
+                    checkpointRepository.save(checkpoint);
+                    publish("COMPLETED", tariff, checkpoint, total, doneBefore, start);
+                    log.info("Repricing with tariff {} completed: {} rows repriced, {} skipped in {} s", tariff.version(),
+                            checkpoint.getProcessedRows(), checkpoint.getSkippedRows(), (System.nanoTime() - start) / 1_000_000_000);
+                    return true;
+                }
+
+                List<InsuranceCalculationDTO> repriced = pool.submit(() -> rows.parallelStream()
+                        .filter(row -> row.vehicleType() != null && row.annualKilometers() != null)
+                        .map(row -> insuranceCalculationService.reprice(row, tariff))
+                        .toList()).join();
+                write(checkpoint, tariff, repriced, rows.size() - repriced.size(), rows.get(rows.size() - 1).id());
+                evict(repriced);
+
+                publish("RUNNING", tariff, checkpoint, total, doneBefore, start);
+                if (System.nanoTime() - lastLog >= properties.progressInterval().toNanos()) {
+                    lastLog = System.nanoTime();
+                    RepricingStatusDTO progress = status.get();
+                    log.info("Repricing with tariff {}: {}/{} rows, {} rows/s, ETA {} s", tariff.version(),
+                            progress.processedRows() + progress.skippedRows(), progress.totalRows(),
+                            Math.round(progress.rowsPerSecond()), progress.etaSeconds());
+                }
+            }
+            // Der Checkpoint bleibt im Zustand RUNNING, damit die Neubewertung beim nächsten Start fortgesetzt wird.
+            publish("STOPPED", tariff, checkpoint, total, doneBefore, start);
+            log.info("Repricing with tariff {} stopped after id {}", tariff.version(), checkpoint.getLastId());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Repricing with tariff {} failed after id {}", tariff.version(), checkpoint.getLastId(), e);
+            RepricingCheckpoint failed = checkpointRepository.findById(JOB).orElse(checkpoint);
+            failed.setState(State.FAILED);
+            failed.setUpdatedAt(Instant.now());
+            checkpointRepository.save(failed);
+            publish("FAILED", tariff, failed, total, doneBefore, start);
+            return true;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Schreibt die neuen Prämien eines Blocks und den Checkpoint in einer Transaktion.
+     * Der Checkpoint im Speicher wird erst nach dem Commit fortgeschrieben.
+     */
+    private void write(RepricingCheckpoint checkpoint, PremiumRateTable tariff, List<InsuranceCalculationDTO> repriced,
+                       long skipped, long lastId) {
+        RepricingCheckpoint next = copy(checkpoint);
+        next.setLastId(lastId);
+        next.setProcessedRows(checkpoint.getProcessedRows() + repriced.size());
+        next.setSkippedRows(checkpoint.getSkippedRows() + skipped);
+        next.setUpdatedAt(Instant.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_PREMIUM, repriced, repriced.size(), (statement, dto) -> {
+                statement.setDouble(1, dto.calculatedPremium());
+                statement.setString(2, tariff.version());
+                statement.setLong(3, dto.id());
+                statement.setString(4, tariff.version());
+            });
+            checkpointRepository.save(next);
+        });
+
+        checkpoint.setLastId(next.getLastId());
+        checkpoint.setProcessedRows(next.getProcessedRows());
+        checkpoint.setSkippedRows(next.getSkippedRows());
+        checkpoint.setUpdatedAt(next.getUpdatedAt());
+    }
+
+    private void evict(List<InsuranceCalculationDTO> repriced) {
+        Cache cache = cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS);
+        if (cache != null) {
+            repriced.forEach(dto -> cache.evict(dto.id()));
+        }
+    }
+
+    private void publish(String state, PremiumRateTable tariff, RepricingCheckpoint checkpoint, long total, long doneBefore, long start) {
+        long done = checkpoint.getProcessedRows() + checkpoint.getSkippedRows();
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        double rowsPerSecond = (done - doneBefore) / seconds;
+        Long eta = "RUNNING".equals(state) && rowsPerSecond > 0 ? Math.round((total - done) / rowsPerSecond) : null;
+        status.set(new RepricingStatusDTO(state, tariff.version(), checkpoint.getProcessedRows(), checkpoint.getSkippedRows(),
+                total, checkpoint.getLastId(), rowsPerSecond, eta));
+    }
+
+    private static RepricingCheckpoint newCheckpoint(PremiumRateTable tariff) {
+        RepricingCheckpoint checkpoint = new RepricingCheckpoint();
+        checkpoint.setJob(JOB);
+        checkpoint.setTariffVersion(tariff.version());
+        checkpoint.setLastId(0L);
+        checkpoint.setProcessedRows(0L);
+        checkpoint.setSkippedRows(0L);
+        checkpoint.setState(State.RUNNING);
+        checkpoint.setUpdatedAt(Instant.now());
+        return checkpoint;
+    }
+
+    private static RepricingCheckpoint copy(RepricingCheckpoint checkpoint) {
+        RepricingCheckpoint copy = new RepricingCheckpoint();
+        copy.setJob(checkpoint.getJob());
+        copy.setTariffVersion(checkpoint.getTariffVersion());
+        copy.setLastId(checkpoint.getLastId());
+        copy.setProcessedRows(checkpoint.getProcessedRows());
+        copy.setSkippedRows(checkpoint.getSkippedRows());
+        copy.setState(State.RUNNING);
+        copy.setUpdatedAt(checkpoint.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * Die Advisory-Sperre eines Laufs. Sie gehört zur Sitzung, daher bleibt ihre Verbindung bis zum Ende des Laufs
+     * geöffnet und wird erst nach dem Freigeben an den Pool zurückgegeben. Andere Datenbanken werden nur lokal mit
+     * einem einzelnen Knoten betrieben und brauchen keine Sperre.
+     *
+     * @param connection Die Verbindung, die die Sperre hält, oder `null` ohne Sperre.
+     * @param acquired   Ob der Lauf stattfinden darf.
+     */
+    private record RunLock(Connection connection, boolean acquired) implements AutoCloseable {
+
+        static RunLock acquire(DataSource dataSource) throws SQLException {
+            Connection connection = dataSource.getConnection();
+            try {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    connection.close();
+                    return new RunLock(null, true);
+                }
+                boolean acquired;
+                try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                    lock.setLong(1, RUN_LOCK_KEY);
+                    try (ResultSet result = lock.executeQuery()) {
+                        acquired = result.next() && result.getBoolean(1);
+                    }
+                }
+                if (!acquired) {
+                    connection.close();
+                    return new RunLock(null, false);
+                }
+                return new RunLock(connection, true);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (connection == null) {
+                return;
+            }
+            try (connection; PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                unlock.setLong(1, RUN_LOCK_KEY);
+                unlock.execute();
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.CacheConfig;
+import com.insurance.premium.config.RetentionProperties;
+import com.insurance.premium.dto.RetentionStatusDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Entfernt Versicherungsberechnungen, deren `created_at` länger als die Aufbewahrungsfrist zurückliegt.
+ * <p>
+ * Ist die Tabelle unter PostgreSQL nach Monaten partitioniert, legt ein Lauf zuerst die Partitionen der kommenden
+ * Monate an und hängt dann jede Partition ab, deren Monat vollständig abgelaufen ist, und löscht sie. Das kostet
+ * weder Zeilensperren noch VACUUM. Das Abhängen wartet höchstens {@link #LOCK_TIMEOUT} auf die Sperre der Tabelle;
+ * gelingt es nicht, wird die Partition im nächsten Lauf entfernt.
+ * <p>
+ * Übrige abgelaufene Zeilen, etwa in einer nicht partitionierten Tabelle, im Monat an der Fristgrenze oder in der
+ * Default-Partition, werden in Blöcken von höchstens `chunk-size` Zeilen gelöscht, jeder Block in einer eigenen
+ * Transaktion und mit einer Pause dazwischen. So bleiben Sperren kurz und die Datenbank kann zwischen den Blöcken
+ * aufräumen und replizieren. Gelöschte Berechnungen werden aus dem Cache entfernt.
+ */
+@Component
+@Log4j2
+public class RetentionJob implements SmartLifecycle {
+
+    /**
+     * Das Namensschema der Monatspartitionen, etwa `insurance_calculation_p202401` für Januar 2024.
+     */
+    static final String PARTITION_PREFIX = "insurance_calculation_p";
+
+    /**
+     * Wie lange das Abhängen einer Partition höchstens auf die Sperre der Tabelle wartet.
+     */
+    static final Duration LOCK_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+    private static final String IS_PARTITIONED = "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('insurance_calculation')";
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = to_regclass('insurance_calculation') ORDER BY c.relname";
+    // PostgreSQL kennt kein DELETE ... LIMIT; die IDs eines Blocks werden daher über den Index auf (created_at, id) gelesen.
+    private static final String SELECT_EXPIRED = "SELECT id FROM insurance_calculation WHERE created_at < ? ORDER BY created_at, id LIMIT ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM insurance_calculation WHERE id = ? AND created_at < ?";
+    private static final RetentionStatusDTO IDLE = new RetentionStatusDTO("IDLE", null, false, List.of(), List.of(), 0, null, null);
+
+    private final RetentionProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    private final AtomicReference<RetentionStatusDTO> status = new AtomicReference<>(IDLE);
+    // Ein Semaphor statt einer Sperre, da ein von startPurge() belegter Lauf im Hintergrund-Thread freigegeben wird.
+    private final Semaphore permit = new Semaphore(1);
+    private volatile CountDownLatch stopSignal = new CountDownLatch(1);
+    private volatile boolean running;
+    private Thread worker;
+    private Thread manualRun;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten.
+     *
+     * @param properties         Die Einstellungen für die Bereinigung.
+     * @param jdbcTemplate       Das JdbcTemplate für die Partitionen und das blockweise Löschen.
+     * @param transactionManager Der TransactionManager für die Transaktion je Block.
+     * @param cacheManager       Der CacheManager, aus dessen Cache gelöschte Berechnungen entfernt werden.
+     * @param meterRegistry      Die Registry für die Zähler der gelöschten Zeilen und Partitionen.
+     * @param environment        Die Umgebung, aus der gelesen wird, ob virtuelle Threads aktiviert sind.
+     */
+    public RetentionJob(RetentionProperties properties, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        CacheManager cacheManager, MeterRegistry meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * @return Der Stand des laufenden oder des zuletzt beendeten Laufs.
+     */
+    public RetentionStatusDTO status() {
+        return status.get();
+    }
+
+    /**
+     * Startet einen Lauf im Hintergrund, unabhängig vom regelmäßigen Lauf.
+     *
+     * @return Ob der Lauf gestartet wurde; `false`, wenn bereits ein Lauf aktiv ist.
+     */
+    public synchronized boolean startPurge() {
+        if (!permit.tryAcquire()) {
+            return false;
+        }
+        status.set(new RetentionStatusDTO("STARTING", null, false, List.of(), List.of(), 0, null, null));
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        try {
+            manualRun = builder.name("retention-manual").start(() -> {
+                try {
+                    run();
+                } finally {
+                    permit.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Führt einen Lauf im aufrufenden Thread aus. Ein Fehler beendet den Lauf mit dem Zustand `FAILED`;
+     * bereits gelöschte Blöcke und Partitionen bleiben gelöscht.
+     *
+     * @return Der Stand am Ende des Laufs.
+     * @throws IllegalStateException Wenn bereits ein Lauf aktiv ist.
+     */
+    public RetentionStatusDTO purge() {
+        if (!permit.tryAcquire()) {
+            throw new IllegalStateException("Retention purge is already running");
+        }
+        try {
+            return run();
+        } finally {
+            permit.release();
+        }
+    }
+
+    private RetentionStatusDTO run() {
+        Instant startedAt = Instant.now();
+        Instant cutoff = startedAt.atOffset(ZoneOffset.UTC).minus(properties.maxAge()).toInstant();
+        status.set(new RetentionStatusDTO("RUNNING", cutoff, false, List.of(), List.of(), 0, startedAt, null));
+        try {
+            if (isPartitioned()) {
+                List<String> created = createPartitions(YearMonth.from(startedAt.atOffset(ZoneOffset.UTC)));
+                publish("RUNNING", true, created, List.of(), 0L);
+                dropExpiredPartitions(cutoff);
+            }
+            deleteExpiredRows(cutoff);
+
+            RetentionStatusDTO result = publish(stopRequested() ? "STOPPED" : "COMPLETED", null, null, null, null);
+            log.info("Retention purge before {}: {} partitions dropped, {} rows deleted in {} ms", cutoff,
+                    result.droppedPartitions().size(), result.deletedRows(),
+                    Duration.between(startedAt, result.finishedAt()).toMillis());
+            return result;
+        } catch (RuntimeException e) {
+            log.error("Retention purge before {} failed", cutoff, e);
+            return publish("FAILED", null, null, null, null);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopSignal = new CountDownLatch(1);
+        running = true;
+        if (properties.enabled()) {
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            synchronized (this) {
+                worker = builder.name("retention").start(this::runPeriodically);
+            }
+            log.info("Retention purge of calculations older than {} scheduled every {}", properties.maxAge(), properties.interval());
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopSignal.countDown();
+        List<Thread> threads = new ArrayList<>();
+        synchronized (this) {
+            threads.add(worker);
+            threads.add(manualRun);
+        }
+        for (Thread thread : threads) {
+            if (thread != null) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runPeriodically() {
+        do {
+            try {
+                purge();
+            } catch (IllegalStateException e) {
+                log.info("Skipping scheduled retention purge, a purge is already running");
+            }
+        } while (!await(properties.interval()));
+    }
+
+    private boolean isPartitioned() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(database) && jdbcTemplate.queryForObject(IS_PARTITIONED, Long.class) > 0;
+    }
+
+    /**
+     * Legt die fehlenden Partitionen vom aktuellen Monat bis `partitions-ahead` Monate im Voraus an.
+     * Enthält die Default-Partition bereits Zeilen eines Monats, lässt PostgreSQL dessen Partition nicht zu;
+     * diese Zeilen bleiben dann in der Default-Partition und werden blockweise gelöscht.
+     */
+    private List<String> createPartitions(YearMonth current) {
+        List<String> existing = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= properties.partitionsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = PARTITION_PREFIX + PARTITION_MONTH.format(month);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF insurance_calculation FOR VALUES FROM ('"
+                        + month.atDay(1) + " 00:00:00+00') TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+                created.add(partition);
+                log.info("Created partition {}", partition);
+            } catch (DataAccessException e) {
+                log.warn("Cannot create partition {}: {}", partition, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Hängt jede Monatspartition ab, deren Monat vor dem Stichtag endet, und löscht sie.
+     */
+    private void dropExpiredPartitions(Instant cutoff) {
+        List<String> dropped = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            if (stopRequested()) {
+                return;
+            }
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            Instant end = YearMonth.parse(matcher.group(1), PARTITION_MONTH).plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            if (end.isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(transaction -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT.toMillis() + "ms'");
+                    jdbcTemplate.execute("ALTER TABLE insurance_calculation DETACH PARTITION " + partition);
+                });
+            } catch (DataAccessException e) {
+                log.warn("Cannot detach partition {}, retrying in the next run: {}", partition, e.getMessage());
+                continue;
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped.add(partition);
+            meterRegistry.counter("retention.dropped.partitions").increment();
+            publish("RUNNING", true, null, List.copyOf(dropped), null);
+            log.info("Dropped expired partition {}", partition);
+        }
+        if (!dropped.isEmpty()) {
+            // Die IDs einer gelöschten Partition sind nicht bekannt, daher wird der ganze Cache geleert.
+            Cache cache = cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Löscht die abgelaufenen Zeilen in Blöcken, jeden Block in einer eigenen Transaktion.
+     */
+    private void deleteExpiredRows(Instant cutoff) {
+        OffsetDateTime before = cutoff.atOffset(ZoneOffset.UTC);
+        long deleted = 0;
+        while (!stopRequested()) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED, Long.class, before, properties.chunkSize());
+            if (ids.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(transaction ->
+                    jdbcTemplate.batchUpdate(DELETE_EXPIRED, ids, ids.size(), (statement, id) -> {
+                        statement.setLong(1, id);
+                        statement.setObject(2, before);
+                    }));
+            Cache cache = cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS);
+            if (cache != null) {
+                ids.forEach(cache::evict);
+            }
+            deleted += ids.size();
+            meterRegistry.counter("retention.deleted.rows").increment(ids.size());
+            publish("RUNNING", null, null, null, deleted);
+
+            if (ids.size() < properties.chunkSize() || await(properties.chunkPause())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Aktualisiert den Stand; `null` übernimmt den bisherigen Wert. Ein anderer Zustand als `RUNNING` beendet den Lauf.
+     */
+    private RetentionStatusDTO publish(String state, Boolean partitioned, List<String> created, List<String> dropped, Long deleted) {
+        RetentionStatusDTO previous = status.get();
+        RetentionStatusDTO next = new RetentionStatusDTO(state, previous.cutoff(),
+                partitioned != null ? partitioned : previous.partitioned(),
+                created != null ? created : previous.createdPartitions(),
+                dropped != null ? dropped : previous.droppedPartitions(),
+                deleted != null ? deleted : previous.deletedRows(),
+                previous.startedAt(),
+                "RUNNING".equals(state) ? null : Instant.now());
+        status.set(next);
+        return next;
+    }
+
+    private boolean stopRequested() {
+        return stopSignal.getCount() == 0;
+    }
+
+    /**
+     * Wartet die angegebene Zeit oder bis zum Herunterfahren.
+     *
+     * @return Ob das Herunterfahren angefordert wurde.
+     */
+    private boolean await(Duration duration) {
+        try {
+            return stopSignal.await(duration.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.insurance.premium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.insurance.premium.config.TariffProperties;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.exception.InvalidTariffException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hält den aktiven Tarif als unveränderliche {@link PremiumRateTable}.
+ * Der Tarif wird aus einer versionierten JSON-Datei geladen, geprüft und erst danach per atomarem Tausch der Referenz
+ * veröffentlicht. Berechnungen lesen den Tarif ohne Sperre über {@link #current()} und sehen immer einen vollständigen Stand.
+ * <p>
+ * Neu geladen wird über {@link #reload()}, etwa vom Actuator-Endpunkt `tariff`, oder automatisch, wenn die Datei im
+ * Dateisystem liegt und sich ändert. Eine ungültige Datei wird abgelehnt und der bisherige Tarif bleibt aktiv.
+ * Geänderte Faktoren brauchen eine neue Version, damit jede gespeicherte Berechnung eindeutig einem Tarif zugeordnet bleibt.
+ */
+@Component
+@Log4j2
+public class TariffEngine implements SmartLifecycle {
+
+    /**
+     * Wartezeit nach einer Dateiänderung, damit mehrere Schreibvorgänge eines Editors nur ein Neuladen auslösen.
+     */
+    private static final long WATCH_DEBOUNCE_MILLIS = 200;
+
+    private static final ObjectReader TARIFF_READER = new ObjectMapper().readerFor(TariffFile.class);
+
+    private final TariffProperties properties;
+    private final Resource resource;
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+    private final AtomicReference<PremiumRateTable> current = new AtomicReference<>();
+
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * Konstruktor zur Injektion von Abhängigkeiten. Lädt den Tarif sofort, damit die Anwendung mit einer ungültigen
+     * Tarifdatei gar nicht erst startet.
+     *
+     * @param properties     Die Einstellungen für die Tarifdatei.
+     * @param resourceLoader Der ResourceLoader, über den die Tarifdatei gelesen wird.
+     * @param meterRegistry  Die Registry für die Zähler der Ladevorgänge.
+     * @param environment    Die Umgebung, aus der gelesen wird, ob virtuelle Threads aktiviert sind.
+     */
+    public TariffEngine(TariffProperties properties, ResourceLoader resourceLoader, MeterRegistry meterRegistry,
+                        Environment environment) {
+        this.properties = properties;
+        this.resource = resourceLoader.getResource(properties.location());
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        reload();
+    }
+
+    /**
+     * @return Der aktive Tarif.
+     */
+    public PremiumRateTable current() {
+        return current.get();
+    }
+
+    /**
+     * @return Der Ort der Tarifdatei.
+     */
+    public String location() {
+        return properties.location();
+    }
+
+    /**
+     * Liest die Tarifdatei neu und veröffentlicht sie, wenn sie eine neue Version enthält.
+     * Enthält sie die aktive Version mit denselben Faktoren, bleibt der Tarif unverändert.
+     *
+     * @return Der danach aktive Tarif.
+     * @throws InvalidTariffException Wenn die Datei nicht gelesen werden kann, ungültig ist oder die aktive Version
+     *                                mit geänderten Faktoren enthält.
+     */
+    public synchronized PremiumRateTable reload() {
+        PremiumRateTable active = current.get();
+        PremiumRateTable loaded;
+        try {
+            loaded = read();
+        } catch (InvalidTariffException e) {
+            recordReload("failure");
+            throw e;
+        }
+
+        if (active != null && active.version().equals(loaded.version())) {
+            if (!active.hasSameRates(loaded)) {
+                recordReload("failure");
+                throw new InvalidTariffException(properties.location(),
+                        "version " + loaded.version() + " is already active with different factors", null);
+            }
+            recordReload("unchanged");
+            return active;
+        }
+        current.set(loaded);
+        recordReload("success");
+        log.info("Activated tariff {} from {} (previous {})", loaded.version(), properties.location(),
+                active != null ? active.version() : "none");
+        return loaded;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.watch() || !resource.isFile()) {
+            return;
+        }
+        try {
+            Path file = resource.getFile().toPath().toAbsolutePath();
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            running = true;
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            watcher = builder.name("tariff-watcher").start(() -> watchLoop(file.getFileName()));
+            log.info("Watching tariff file {} for changes", file);
+        } catch (IOException e) {
+            log.warn("Cannot watch tariff file {}, reload only on request", properties.location(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            watchService.close();
+            watcher.join();
+        } catch (IOException e) {
+            log.warn("Closing the tariff file watcher failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watchLoop(Path fileName) {
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                // Folgeereignisse desselben Speichervorgangs einsammeln, bis die Datei zur Ruhe gekommen ist.
+                while (key != null) {
+                    changed |= concerns(key, fileName);
+                    key.reset();
+                    key = watchService.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (InvalidTariffException e) {
+                        log.error("Tariff file changed but was rejected, keeping tariff {}: {}", current().version(), e.getMessage());
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Beim Herunterfahren geschlossen.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean concerns(WatchKey key, Path fileName) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            concerns |= fileName.equals(event.context());
+        }
+        return concerns;
+    }
+
+    private PremiumRateTable read() {
+        TariffFile tariffFile;
+        try (InputStream input = resource.getInputStream()) {
+            tariffFile = TARIFF_READER.readValue(input);
+        } catch (IOException e) {
+            throw new InvalidTariffException(properties.location(), e.getMessage(), e);
+        }
+        try {
+            return tariffFile.toRateTable();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTariffException(properties.location(), e.getMessage(), e);
+        }
+    }
+
+    private void recordReload(String outcome) {
+        meterRegistry.counter("tariff.reloads", "outcome", outcome).increment();
+    }
+
+    /**
+     * Der Inhalt der Tarifdatei.
+     *
+     * @param version        Die Version des Tarifs; sie wird mit jeder gespeicherten Berechnung abgelegt.
+     * @param vehicleFactors Der Faktor je Fahrzeugtyp.
+     * @param regionFactors  Der Faktor je Bundesland.
+     * @param kilometerBands Die Kilometerbänder aufsteigend; nur das letzte Band hat keine Obergrenze.
+     */
+    record TariffFile(String version, Map<VehicleType, Double> vehicleFactors, Map<BundeslandISO, Double> regionFactors,
+                      List<KilometerBand> kilometerBands) {
+
+        PremiumRateTable toRateTable() {
+            if (vehicleFactors == null || regionFactors == null || kilometerBands == null || kilometerBands.isEmpty()) {
+                throw new IllegalArgumentException("vehicleFactors, regionFactors and kilometerBands are required");
+            }
+            int[] limits = new int[kilometerBands.size() - 1];
+            double[] factors = new double[kilometerBands.size()];
+            for (int band = 0; band < kilometerBands.size(); band++) {
+                KilometerBand kilometerBand = kilometerBands.get(band);
+                boolean last = band == limits.length;
+                if (kilometerBand.upTo() == null != last) {
+                    throw new IllegalArgumentException("Every kilometer band except the last one needs an upper limit (band " + band + ")");
+                }
+                if (!last) {
+                    limits[band] = kilometerBand.upTo();
+                }
+                if (kilometerBand.factor() == null) {
+                    throw new IllegalArgumentException("Tariff has no kilometer factor of band " + band);
+                }
+                factors[band] = kilometerBand.factor();
+            }
+            return PremiumRateTable.of(version, vehicleFactors, regionFactors, limits, factors);
+        }
+    }
+
+    /**
+     * Ein Kilometerband der Tarifdatei.
+     *
+     * @param upTo   Die Obergrenze (inklusive) der jährlich gefahrenen Kilometer, beim letzten Band `null`.
+     * @param factor Der Kilometerfaktor des Bands.
+     */
+    record KilometerBand(Integer upTo, Double factor) {
+    }
+}
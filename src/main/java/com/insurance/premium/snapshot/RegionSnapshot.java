@@ -0,0 +1,203 @@
+package com.insurance.premium.snapshot;
+
+import com.insurance.premium.enums.BundeslandISO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lesezugriff auf einen binären Regions-Snapshot, der beim Build aus `data/postcodes.csv` erzeugt wird.
+ * Die Datei wird per `MappedByteBuffer` eingeblendet; alle Zugriffe lesen direkt aus der eingeblendeten Datei,
+ * sodass mehrere JVMs auf einem Host sich den Page-Cache teilen. Nur Zeichenketten werden bei Bedarf dekodiert
+ * und zwischengespeichert.
+ * <p>
+ * Aufbau (Big Endian):
+ * <ul>
+ *     <li>Header mit Magic, Formatversion, Anzahl Datensätze, Anzahl Postleitzahlen, Anzahl Zeichenketten,
+ *     den Offsets der folgenden Abschnitte und einer Prüfsumme der Quelldatei</li>
+ *     <li>Datensätze fester Länge, sortiert nach Postleitzahl: Postleitzahl, Bundesland-Ordinal,
+ *     Landkreis, Stadt, Ort (als Index in den String-Pool), Breitengrad, Längengrad</li>
+ *     <li>Postleitzahl-Tabelle mit dem ersten Datensatz je Postleitzahl oder `-1`</li>
+ *     <li>String-Pool aus Offsets und UTF-8-Daten</li>
+ * </ul>
+ */
+public final class RegionSnapshot {
+
+    /**
+     * Der Klassenpfad des beim Build erzeugten Snapshots.
+     */
+    public static final String RESOURCE = "data/postcodes.snapshot";
+
+    static final int MAGIC = 0x50524753;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 48;
+    static final int RECORD_SIZE = 40;
+    static final int POSTCODE_RANGE = 100_000;
+    static final int NO_STRING = -1;
+
+    private static final BundeslandISO[] BUNDESLAENDER = BundeslandISO.values();
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int postcodeCount;
+    private final int recordsOffset;
+    private final int postcodeTableOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final long contentHash;
+    private final String[] strings;
+
+    private RegionSnapshot(Path file, ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException(file + " is not a region snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException(file + " has unsupported snapshot format " + buffer.getInt(4));
+        }
+        this.file = file;
+        this.buffer = buffer;
+        this.recordCount = buffer.getInt(8);
+        this.postcodeCount = buffer.getInt(12);
+        this.strings = new String[buffer.getInt(16)];
+        this.recordsOffset = buffer.getInt(20);
+        this.postcodeTableOffset = buffer.getInt(24);
+        this.stringOffsetsOffset = buffer.getInt(28);
+        this.stringDataOffset = buffer.getInt(32);
+        this.contentHash = buffer.getLong(40);
+    }
+
+    /**
+     * Blendet einen Snapshot schreibgeschützt in den Speicher ein.
+     *
+     * @param file Die Snapshot-Datei.
+     * @return Der eingeblendete Snapshot.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann.
+     */
+    public static RegionSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new RegionSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wandelt eine fünfstellige Postleitzahl ohne Allokation in eine Zahl um.
+     *
+     * @param postcode Die Postleitzahl.
+     * @return Die Postleitzahl als Zahl oder `-1`, wenn sie nicht aus genau fünf Ziffern besteht.
+     */
+    public static int parsePostcode(CharSequence postcode) {
+        if (postcode == null || postcode.length() != 5) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            char c = postcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Sucht den ersten Datensatz zu einer Postleitzahl. Weitere Datensätze derselben Postleitzahl folgen direkt danach.
+     *
+     * @param postcode Die Postleitzahl als Zahl.
+     * @return Der Index des Datensatzes oder `-1`, wenn die Postleitzahl unbekannt ist.
+     */
+    public int findRecord(int postcode) {
+        if (postcode < 0 || postcode >= POSTCODE_RANGE) {
+            return -1;
+        }
+        return buffer.getInt(postcodeTableOffset + postcode * Integer.BYTES);
+    }
+
+    /**
+     * @return Die Anzahl der Datensätze.
+     */
+    public int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return Die Anzahl der verschiedenen Postleitzahlen.
+     */
+    public int postcodeCount() {
+        return postcodeCount;
+    }
+
+    public int postcode(int record) {
+        return buffer.getInt(recordOffset(record));
+    }
+
+    public BundeslandISO bundesland(int record) {
+        return BUNDESLAENDER[buffer.getInt(recordOffset(record) + 4)];
+    }
+
+    public String district(int record) {
+        return string(buffer.getInt(recordOffset(record) + 8));
+    }
+
+    public String city(int record) {
+        return string(buffer.getInt(recordOffset(record) + 12));
+    }
+
+    public String place(int record) {
+        return string(buffer.getInt(recordOffset(record) + 16));
+    }
+
+    public double latitude(int record) {
+        return buffer.getDouble(recordOffset(record) + 24);
+    }
+
+    public double longitude(int record) {
+        return buffer.getDouble(recordOffset(record) + 32);
+    }
+
+    /**
+     * @return Die ersten acht Bytes der SHA-256-Prüfsumme der Quelldatei, aus der der Snapshot erzeugt wurde.
+     */
+    public long contentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @return Die Größe der eingeblendeten Datei in Bytes.
+     */
+    public long mappedBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return Der Pfad der eingeblendeten Datei.
+     */
+    public Path file() {
+        return file;
+    }
+
+    private int recordOffset(int record) {
+        return recordsOffset + record * RECORD_SIZE;
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsetsOffset + index * Integer.BYTES);
+            int end = buffer.getInt(stringOffsetsOffset + (index + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringDataOffset + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+}
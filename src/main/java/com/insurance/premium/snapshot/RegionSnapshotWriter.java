@@ -0,0 +1,190 @@
+package com.insurance.premium.snapshot;
+
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.util.CsvReader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Erzeugt aus `data/postcodes.csv` einen binären {@link RegionSnapshot}.
+ * Wird beim Build in der Phase `process-classes` ausgeführt, damit zur Laufzeit keine CSV-Datei mehr geparst werden muss.
+ */
+public final class RegionSnapshotWriter {
+
+    private static final int COLUMN_REGION_CODE = 1;
+    private static final int COLUMN_DISTRICT = 4;
+    private static final int COLUMN_CITY = 5;
+    private static final int COLUMN_POSTCODE = 6;
+    private static final int COLUMN_PLACE = 7;
+    private static final int COLUMN_LATITUDE = 10;
+    private static final int COLUMN_LONGITUDE = 11;
+
+    private RegionSnapshotWriter() {
+    }
+
+    /**
+     * Einstiegspunkt für den Build.
+     *
+     * @param args Pfad der CSV-Datei und Pfad des zu schreibenden Snapshots.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen oder der Snapshot nicht geschrieben werden kann.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RegionSnapshotWriter <postcodes.csv> <postcodes.snapshot>");
+        }
+        Path target = Path.of(args[1]);
+        try (InputStream csv = Files.newInputStream(Path.of(args[0]))) {
+            int records = write(csv, target);
+            System.out.printf("Wrote region snapshot %s with %d records (%d bytes)%n", target, records, Files.size(target));
+        }
+    }
+
+    /**
+     * Liest eine CSV-Datei im Format von `data/postcodes.csv` und schreibt den Snapshot atomar an das Ziel.
+     *
+     * @param csv    Die CSV-Daten.
+     * @param target Der Pfad des Snapshots.
+     * @return Die Anzahl der geschriebenen Datensätze.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen oder der Snapshot nicht geschrieben werden kann.
+     */
+    public static int write(InputStream csv, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        List<Row> rows = new ArrayList<>();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(new DigestInputStream(csv, digest), StandardCharsets.UTF_8))) {
+            reader.next();
+            while (reader.next()) {
+                if (reader.columnCount() <= COLUMN_LONGITUDE) {
+                    continue;
+                }
+                int postcode = RegionSnapshot.parsePostcode(reader.get(COLUMN_POSTCODE));
+                if (postcode < 0) {
+                    continue;
+                }
+                rows.add(new Row(postcode,
+                        BundeslandISO.fromBundesland(reader.get(COLUMN_REGION_CODE)).ordinal(),
+                        intern(strings, reader.get(COLUMN_DISTRICT)),
+                        intern(strings, reader.get(COLUMN_CITY)),
+                        intern(strings, reader.get(COLUMN_PLACE)),
+                        parseCoordinate(reader.get(COLUMN_LATITUDE)),
+                        parseCoordinate(reader.get(COLUMN_LONGITUDE))));
+            }
+        }
+        // Stabil sortieren, damit der erste Datensatz einer Postleitzahl der erste Eintrag der Datei bleibt.
+        rows.sort(Comparator.comparingInt(Row::postcode));
+
+        int[] postcodeTable = new int[RegionSnapshot.POSTCODE_RANGE];
+        Arrays.fill(postcodeTable, -1);
+        int postcodeCount = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            int postcode = rows.get(i).postcode();
+            if (postcodeTable[postcode] < 0) {
+                postcodeTable[postcode] = i;
+                postcodeCount++;
+            }
+        }
+
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[strings.size() + 1];
+        int index = 0;
+        for (String value : strings.keySet()) {
+            stringOffsets[index++] = stringData.size();
+            stringData.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+        stringOffsets[index] = stringData.size();
+
+        int recordsOffset = RegionSnapshot.HEADER_SIZE;
+        int postcodeTableOffset = recordsOffset + rows.size() * RegionSnapshot.RECORD_SIZE;
+        int stringOffsetsOffset = postcodeTableOffset + postcodeTable.length * Integer.BYTES;
+        int stringDataOffset = stringOffsetsOffset + stringOffsets.length * Integer.BYTES;
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(RegionSnapshot.MAGIC);
+            out.writeInt(RegionSnapshot.FORMAT_VERSION);
+            out.writeInt(rows.size());
+            out.writeInt(postcodeCount);
+            out.writeInt(strings.size());
+            out.writeInt(recordsOffset);
+            out.writeInt(postcodeTableOffset);
+            out.writeInt(stringOffsetsOffset);
+            out.writeInt(stringDataOffset);
+            out.writeInt(0);
+            out.writeLong(toLong(digest.digest()));
+
+            for (Row row : rows) {
+                out.writeInt(row.postcode());
+                out.writeInt(row.bundeslandOrdinal());
+                out.writeInt(row.district());
+                out.writeInt(row.city());
+                out.writeInt(row.place());
+                out.writeInt(0);
+                out.writeDouble(row.latitude());
+                out.writeDouble(row.longitude());
+            }
+            writeInts(out, postcodeTable);
+            writeInts(out, stringOffsets);
+            stringData.writeTo((OutputStream) out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows.size();
+    }
+
+    private static int intern(Map<String, Integer> strings, String value) {
+        if (value == null || value.isEmpty()) {
+            return RegionSnapshot.NO_STRING;
+        }
+        return strings.computeIfAbsent(value, key -> strings.size());
+    }
+
+    private static double parseCoordinate(String value) {
+        return value == null || value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static long toLong(byte[] hash) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Row(int postcode, int bundeslandOrdinal, int district, int city, int place,
+                       double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.insurance.premium.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streamender CSV-Parser, der Anführungszeichen berücksichtigt.
+ * Felder in Anführungszeichen dürfen Trennzeichen, Zeilenumbrüche und verdoppelte Anführungszeichen (`""`) enthalten.
+ * Leerzeichen um nicht zitierte Felder und zwischen Trennzeichen und Anführungszeichen werden entfernt.
+ * Es wird immer nur der aktuelle Datensatz im Speicher gehalten.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder(64);
+    private String[] columns = new String[16];
+    private int columnCount;
+    private long recordNumber;
+
+    /**
+     * Erstellt einen CsvReader für durch Kommas getrennte Werte.
+     *
+     * @param reader Die Quelle der CSV-Daten.
+     */
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    /**
+     * Erstellt einen CsvReader.
+     *
+     * @param reader    Die Quelle der CSV-Daten.
+     * @param separator Das Trennzeichen zwischen den Feldern.
+     */
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * Liest den nächsten Datensatz. Leere Zeilen werden übersprungen.
+     *
+     * @return `true`, wenn ein Datensatz gelesen wurde, `false` am Ende der Daten.
+     * @throws IOException Wenn die Quelle nicht gelesen werden kann oder ein Anführungszeichen nicht geschlossen wird.
+     */
+    public boolean next() throws IOException {
+        columnCount = 0;
+        int c;
+        do {
+            c = read();
+            if (c == -1) {
+                return false;
+            }
+        } while (c == '\n' || c == '\r');
+
+        boolean endOfRecord = false;
+        while (!endOfRecord) {
+            field.setLength(0);
+            while (c == ' ' || c == '\t') {
+                c = read();
+            }
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != -1 && c != separator && c != '\n' && c != '\r') {
+                    field.append((char) c);
+                    c = read();
+                }
+                int end = field.length();
+                while (end > 0 && (field.charAt(end - 1) == ' ' || field.charAt(end - 1) == '\t')) {
+                    end--;
+                }
+                field.setLength(end);
+            }
+            addColumn(field.toString());
+
+            if (c == separator) {
+                c = read();
+            } else {
+                endOfRecord = true;
+            }
+        }
+        recordNumber++;
+        return true;
+    }
+
+    /**
+     * @return Die Anzahl der Felder im aktuellen Datensatz.
+     */
+    public int columnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Gibt ein Feld des aktuellen Datensatzes zurück.
+     *
+     * @param column Der Index des Feldes, beginnend bei 0.
+     * @return Der Wert des Feldes ohne Anführungszeichen; leere Felder werden als leerer String geliefert.
+     */
+    public String get(int column) {
+        if (column >= columnCount) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + columnCount + " in record " + recordNumber);
+        }
+        return columns[column];
+    }
+
+    /**
+     * @return Die Nummer des aktuellen Datensatzes, beginnend bei 1.
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    while (c == ' ' || c == '\t') {
+                        c = read();
+                    }
+                    return c;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void addColumn(String value) {
+        if (columnCount == columns.length) {
+            columns = Arrays.copyOf(columns, columns.length * 2);
+        }
+        columns[columnCount++] = value;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
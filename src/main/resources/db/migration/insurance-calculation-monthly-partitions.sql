@@ -0,0 +1,50 @@
+-- Stellt insurance_calculation auf eine nach created_at monatsweise partitionierte Tabelle um (PostgreSQL 12 oder neuer).
+-- Nur für Datenbanken nötig, die mit ddl-auto "none" oder "validate" betrieben werden; bei "create-drop" legt Hibernate
+-- die Tabelle bei jedem Start unpartitioniert neu an.
+-- Die Partitionen heißen insurance_calculation_pYYYYMM und umfassen je einen Kalendermonat in UTC; Zeilen außerhalb
+-- davon landen in insurance_calculation_default. Weitere Monate legt der RetentionJob an, der auch abgelaufene Monate
+-- abhängt und löscht. Der Primärschlüssel muss den Partitionsschlüssel enthalten und lautet daher (id, created_at).
+-- Bestehende Zeilen ohne created_at erhalten den Zeitpunkt der Migration.
+-- Die Migration ist idempotent und läuft in einer Transaktion; die Tabelle ist währenddessen gesperrt.
+
+BEGIN;
+
+ALTER TABLE insurance_calculation ADD COLUMN IF NOT EXISTS created_at timestamptz;
+UPDATE insurance_calculation SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE insurance_calculation ALTER COLUMN created_at SET NOT NULL;
+
+DO $$
+DECLARE
+    month_start timestamp;
+    last_month_start timestamp;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'insurance_calculation'::regclass) THEN
+        ALTER TABLE insurance_calculation RENAME TO insurance_calculation_unpartitioned;
+
+        CREATE TABLE insurance_calculation (LIKE insurance_calculation_unpartitioned INCLUDING DEFAULTS)
+            PARTITION BY RANGE (created_at);
+        CREATE TABLE insurance_calculation_default PARTITION OF insurance_calculation DEFAULT;
+
+        month_start := date_trunc('month', coalesce((SELECT min(created_at) FROM insurance_calculation_unpartitioned), now()) AT TIME ZONE 'UTC');
+        last_month_start := date_trunc('month', now() AT TIME ZONE 'UTC') + interval '3 months';
+        WHILE month_start <= last_month_start LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF insurance_calculation FOR VALUES FROM (%L) TO (%L)',
+                           'insurance_calculation_p' || to_char(month_start, 'YYYYMM'),
+                           month_start::text || '+00', (month_start + interval '1 month')::text || '+00');
+            month_start := month_start + interval '1 month';
+        END LOOP;
+
+        INSERT INTO insurance_calculation SELECT * FROM insurance_calculation_unpartitioned;
+        DROP TABLE insurance_calculation_unpartitioned;
+
+        -- Schlüssel und Indizes erst nach dem Kopieren anlegen; sie gelten für alle bestehenden und künftigen Partitionen.
+        ALTER TABLE insurance_calculation ADD CONSTRAINT insurance_calculation_pkey PRIMARY KEY (id, created_at);
+        CREATE INDEX idx_insurance_calculation_vehicle_type_id ON insurance_calculation (vehicle_type, id);
+        CREATE INDEX idx_insurance_calculation_registration_office_id ON insurance_calculation (registration_office, id);
+        CREATE INDEX idx_insurance_calculation_postcode_id ON insurance_calculation (postcode, id);
+        CREATE INDEX idx_insurance_calculation_premium_id ON insurance_calculation (calculated_premium, id);
+        CREATE INDEX idx_insurance_calculation_created_at_id ON insurance_calculation (created_at, id);
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,26 @@
+-- Überführt das bisherige Zwei-Tabellen-Layout (region_data.location_id -> location) in das eingebettete Layout,
+-- bei dem latitude und longitude direkt in region_data liegen. Nur für Datenbanken nötig, die mit
+-- ddl-auto "update" oder "none" weiterbetrieben werden; bei "create-drop" legt Hibernate das neue Schema selbst an.
+-- Die Migration ist idempotent und läuft in einer Transaktion.
+
+BEGIN;
+
+ALTER TABLE region_data ADD COLUMN IF NOT EXISTS latitude float8;
+ALTER TABLE region_data ADD COLUMN IF NOT EXISTS longitude float8;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'region_data' AND column_name = 'location_id') THEN
+        UPDATE region_data r
+        SET latitude = l.latitude, longitude = l.longitude
+        FROM location l
+        WHERE l.id = r.location_id;
+
+        ALTER TABLE region_data DROP COLUMN location_id;
+    END IF;
+END $$;
+
+DROP TABLE IF EXISTS location;
+
+COMMIT;
@@ -0,0 +1,90 @@
+package com.insurance.premium.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vergleicht den Durchsatz von Einzelaufrufen an `POST /insurance/calculate` mit dem Stapelendpunkt
+ * `POST /insurance/calculate/batch` gegen eine laufende Instanz.
+ * <p>
+ * Systemeigenschaften: `benchmark.url` (Standard `http://localhost:8080`), `benchmark.quotes` (Standard 10000)
+ * und `benchmark.concurrency` (Standard 16) für die parallelen Einzelaufrufe.
+ */
+public class BatchThroughputBenchmark {
+
+    private static final String[] OFFICES = {"Berlin", "Bayern", "Hamburg", "Hessen", "Sachsen"};
+    private static final String[] VEHICLES = {"CAR", "TRUCK", "MOTORCYCLE", "VAN", "SUV"};
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("benchmark.url", "http://localhost:8080");
+        int quotes = Integer.getInteger("benchmark.quotes", 10_000);
+        int concurrency = Integer.getInteger("benchmark.concurrency", 16);
+        HttpClient client = HttpClient.newHttpClient();
+
+        double single = runSingle(client, url, quotes, concurrency);
+        double batch = runBatch(client, url, quotes);
+
+        System.out.printf("single calls (%d threads): %,.0f quotes/s%n", concurrency, single);
+        System.out.printf("batch endpoint:           %,.0f quotes/s (%.1fx)%n", batch, batch / single);
+    }
+
+    private static double runSingle(HttpClient client, String url, int quotes, int concurrency) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < concurrency; t++) {
+            workers.add(executor.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < quotes) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/insurance/calculate"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(quote(i)))
+                            .build();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Unexpected status " + response.statusCode());
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        return quotes / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static double runBatch(HttpClient client, String url, int quotes) throws Exception {
+        StringBuilder body = new StringBuilder(quotes * 100);
+        for (int i = 0; i < quotes; i++) {
+            body.append(quote(i)).append('\n');
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/insurance/calculate/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        long start = System.nanoTime();
+        long lines = client.send(request, HttpResponse.BodyHandlers.ofLines()).body().count();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (lines != quotes) {
+            throw new IllegalStateException("Expected " + quotes + " results but got " + lines);
+        }
+        return quotes / seconds;
+    }
+
+    private static String quote(int i) {
+        return "{\"annualKilometers\":" + (i * 37 % 40_000) + ",\"registrationOffice\":\"" + OFFICES[i % OFFICES.length]
+                + "\",\"vehicleType\":\"" + VEHICLES[i % VEHICLES.length] + "\"}";
+    }
+}
@@ -0,0 +1,140 @@
+package com.insurance.premium.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lasttest mit vielen gleichzeitigen Clients gegen eine laufende Instanz, um den Betrieb mit Plattform-Threads
+ * und mit virtuellen Threads (Profil `virtual-threads`) zu vergleichen. Jeder Client sendet abwechselnd
+ * `POST /insurance/calculate` und `GET /insurance?limit=20`, beide Aufrufe warten also auf die Datenbank.
+ * Ausgegeben werden Durchsatz, Fehlerrate sowie p50, p99 und das Maximum der Antwortzeiten nach der Aufwärmphase.
+ * Fehlgeschlagene Anfragen zählen mit ihrer beobachteten Antwortzeit in die Perzentile, damit ein Modus, der unter
+ * Überlast schnell ablehnt, nicht mit niedrigeren Perzentilen besser aussieht. Abgelehnte Anfragen (503) werden
+ * getrennt von übrigen Fehlern gezählt.
+ * <p>
+ * Systemeigenschaften: `benchmark.url` (Standard `http://localhost:8080`), `benchmark.concurrency` (Standard 1000),
+ * `benchmark.warmup` und `benchmark.duration` in Sekunden (Standard 10 und 30) sowie `benchmark.label` für die Ausgabe.
+ */
+public class ConcurrencyLoadBenchmark {
+
+    private static final String[] OFFICES = {"Berlin", "Bayern", "Hamburg", "Hessen", "Sachsen"};
+    private static final String[] VEHICLES = {"CAR", "TRUCK", "MOTORCYCLE", "VAN", "SUV"};
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("benchmark.url", "http://localhost:8080");
+        int concurrency = Integer.getInteger("benchmark.concurrency", 1000);
+        long warmupNanos = Duration.ofSeconds(Integer.getInteger("benchmark.warmup", 10)).toNanos();
+        long durationNanos = Duration.ofSeconds(Integer.getInteger("benchmark.duration", 30)).toNanos();
+        String label = System.getProperty("benchmark.label", url);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest page = HttpRequest.newBuilder(URI.create(url + "/insurance?limit=20")).GET().build();
+
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long measureUntil = measureFrom + durationNanos;
+        List<Future<Result>> workers = new ArrayList<>(concurrency);
+        // Die Clients laufen selbst auf virtuellen Threads, damit der Lastgenerator nicht zum Engpass wird.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < concurrency; t++) {
+                int clientIndex = t;
+                workers.add(executor.submit(() -> runClient(client, url, page, clientIndex, measureFrom, measureUntil)));
+            }
+        }
+
+        List<Result> results = new ArrayList<>(concurrency);
+        int total = 0;
+        long rejected = 0;
+        long errors = 0;
+        for (Future<Result> worker : workers) {
+            Result result = worker.get();
+            results.add(result);
+            total += result.count();
+            rejected += result.rejected();
+            errors += result.errors();
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Result result : results) {
+            System.arraycopy(result.latencies(), 0, latencies, offset, result.count());
+            offset += result.count();
+        }
+        Arrays.sort(latencies);
+
+        double seconds = durationNanos / 1e9;
+        long succeeded = total - rejected - errors;
+        System.out.printf("%s, %d clients: %,.0f requests/s (%,.0f successful/s), %.2f%% failed (%d rejected with 503, %d errors), "
+                        + "p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                label, concurrency, total / seconds, succeeded / seconds, total == 0 ? 0.0 : 100.0 * (rejected + errors) / total,
+                rejected, errors, percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static Result runClient(HttpClient client, String url, HttpRequest page, int clientIndex,
+                                    long measureFrom, long measureUntil) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long rejected = 0;
+        long errors = 0;
+        for (int i = clientIndex; ; i++) {
+            HttpRequest request = i % 2 == 0
+                    ? HttpRequest.newBuilder(URI.create(url + "/insurance/calculate"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(quote(i)))
+                            .build()
+                    : page;
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return new Result(latencies, count, rejected, errors);
+            }
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long end = System.nanoTime();
+            if (start < measureFrom || end > measureUntil) {
+                continue;
+            }
+            if (status == 503) {
+                rejected++;
+            } else if (status != 200) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = end - start;
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static String quote(int i) {
+        return "{\"annualKilometers\":" + (i * 37 % 40_000) + ",\"registrationOffice\":\"" + OFFICES[i % OFFICES.length]
+                + "\",\"vehicleType\":\"" + VEHICLES[i % VEHICLES.length] + "\"}";
+    }
+
+    /**
+     * Die gemessenen Antwortzeiten aller Anfragen eines Clients in Nanosekunden, davon abgelehnt und fehlgeschlagen.
+     */
+    private record Result(long[] latencies, int count, long rejected, long errors) {
+    }
+}
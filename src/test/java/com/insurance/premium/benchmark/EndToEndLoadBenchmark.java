@@ -0,0 +1,313 @@
+package com.insurance.premium.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium.PremiumApplication;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * End-to-End-Lasttest mit fester Ankunftsrate (offenes Lastmodell). Die Anfragen werden zu festen Zeitpunkten
+ * ausgelöst, unabhängig davon, ob frühere Antworten schon eingetroffen sind, und ihre Antwortzeit wird ab dem geplanten
+ * Zeitpunkt gemessen. Staut sich die Anwendung, steigt die gemessene Latenz also mit, statt dass der Lastgenerator
+ * langsamer sendet und die Wartezeit verschweigt (Coordinated Omission).
+ * <p>
+ * Die Anfragen verteilen sich nach `benchmark.mix` zufällig auf `POST /insurance/calculate`, `GET /insurance/{id}`
+ * und `PUT /insurance/{id}`; für GET und PUT werden vorab `benchmark.records` Berechnungen angelegt. Höchstens
+ * `benchmark.connections` Anfragen sind gleichzeitig unterwegs; weitere warten im Lastgenerator, und diese Wartezeit
+ * zählt zur gemessenen Antwortzeit. Ausgegeben werden
+ * je Operation Durchsatz, Fehlerzahl sowie p50, p99, p99.9 und das Maximum aus einem HdrHistogram nach der Aufwärmphase.
+ * <p>
+ * Ohne `benchmark.url` startet der Lasttest die Anwendung selbst auf einem freien Port mit einer H2-In-Memory-Datenbank;
+ * Kommandozeilenargumente werden dabei an die Anwendung weitergereicht, etwa `--spring.profiles.active=virtual-threads`.
+ * <p>
+ * Systemeigenschaften: `benchmark.url`, `benchmark.rate` in Anfragen pro Sekunde (Standard 500), `benchmark.mix`
+ * (Standard `calculate=20,get=70,update=10`), `benchmark.records` (Standard 1000), `benchmark.connections`
+ * (Standard 64), `benchmark.warmup` und
+ * `benchmark.duration` in Sekunden (Standard 10 und 30), `benchmark.label` für die Ausgabe sowie `benchmark.histograms`,
+ * ein Verzeichnis, in das die vollständigen Perzentilverteilungen je Operation als `.hgrm`-Dateien geschrieben werden.
+ */
+public class EndToEndLoadBenchmark {
+
+    private static final String[] OFFICES = {"Berlin", "Bayern", "Hamburg", "Hessen", "Sachsen"};
+    private static final String[] VEHICLES = {"CAR", "TRUCK", "MOTORCYCLE", "VAN", "SUV"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String[] EMBEDDED_ARGS = {
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.database=H2",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--premium.tariff.watch=false",
+            "--logging.level.root=WARN"
+    };
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("benchmark.url");
+        int rate = Integer.getInteger("benchmark.rate", 500);
+        int[] mix = parseMix(System.getProperty("benchmark.mix", "calculate=20,get=70,update=10"));
+        int records = Integer.getInteger("benchmark.records", 1000);
+        int connections = Integer.getInteger("benchmark.connections", 64);
+        long warmupNanos = Duration.ofSeconds(Integer.getInteger("benchmark.warmup", 10)).toNanos();
+        long durationNanos = Duration.ofSeconds(Integer.getInteger("benchmark.duration", 30)).toNanos();
+        String histograms = System.getProperty("benchmark.histograms");
+        if ((mix[Operation.GET.ordinal()] > 0 || mix[Operation.UPDATE.ordinal()] > 0) && records < 1) {
+            throw new IllegalArgumentException("benchmark.records must be positive when the mix contains get or update");
+        }
+
+        ConfigurableApplicationContext embedded = url == null
+                ? SpringApplication.run(PremiumApplication.class, Stream.concat(Stream.of(EMBEDDED_ARGS), Stream.of(args)).toArray(String[]::new))
+                : null;
+        try {
+            String baseUrl = url != null ? url : "http://localhost:" + embedded.getEnvironment().getProperty("local.server.port");
+            String label = System.getProperty("benchmark.label", url != null ? url : "embedded H2");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build();
+
+            long[] ids = seed(client, baseUrl, records);
+            Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new Stats(new ConcurrentHistogram(3), new LongAdder()));
+            }
+            long maxLagNanos = run(client, baseUrl, ids, mix, rate, connections, warmupNanos, durationNanos, stats);
+            report(label, rate, durationNanos, maxLagNanos, stats);
+            if (histograms != null) {
+                writeHistograms(Path.of(histograms), label, stats);
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    /**
+     * Löst die Anfragen im festen Takt aus und wartet anschließend auf alle noch offenen Antworten.
+     *
+     * @return Die größte Verspätung des Lastgenerators gegenüber dem geplanten Sendezeitpunkt in Nanosekunden.
+     */
+    private static long run(HttpClient client, String baseUrl, long[] ids, int[] mix, int rate, int connections,
+                            long warmupNanos, long durationNanos, Map<Operation, Stats> stats) {
+        int totalWeight = 0;
+        for (int weight : mix) {
+            totalWeight += weight;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        Semaphore inFlight = new Semaphore(connections);
+        long maxLagNanos = 0;
+        // Jede Anfrage läuft auf einem eigenen virtuellen Thread, damit langsame Antworten den Takt nicht bremsen.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+            long measureUntil = measureFrom + durationNanos;
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * 1e9 / rate);
+                if (intended >= measureUntil) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxLagNanos = Math.max(maxLagNanos, -wait);
+
+                Operation operation = pick(mix, totalWeight, random);
+                HttpRequest request = operation.request(baseUrl, ids.length == 0 ? 0 : ids[random.nextInt(ids.length)], (int) i);
+                Stats target = intended >= measureFrom ? stats.get(operation) : null;
+                executor.execute(() -> {
+                    boolean ok;
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        ok = send(client, request);
+                    } finally {
+                        inFlight.release();
+                    }
+                    if (target == null) {
+                        return;
+                    }
+                    if (ok) {
+                        target.histogram().recordValue(System.nanoTime() - intended);
+                    } else {
+                        target.errors().increment();
+                    }
+                });
+            }
+        }
+        return maxLagNanos;
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Legt die Berechnungen an, auf die GET und PUT zugreifen, und liefert ihre IDs.
+     */
+    private static long[] seed(HttpClient client, String baseUrl, int records) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long[] ids = new long[Math.max(records, 0)];
+        for (int i = 0; i < ids.length; i++) {
+            HttpResponse<String> response = client.send(Operation.CALCULATE.request(baseUrl, 0, i), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            }
+            ids[i] = objectMapper.readValue(response.body(), InsuranceCalculationDTO.class).id();
+        }
+        return ids;
+    }
+
+    private static void report(String label, int rate, long durationNanos, long maxLagNanos, Map<Operation, Stats> stats) {
+        double seconds = durationNanos / 1e9;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        System.out.printf("%s, %d requests/s offered:%n", label, rate);
+        System.out.printf("%-10s %10s %12s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "throughput", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            long errors = entry.getValue().errors().sum();
+            if (histogram.getTotalCount() + errors == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors;
+            printRow(entry.getKey().key, histogram, errors, seconds);
+        }
+        printRow("total", total, totalErrors, seconds);
+        System.out.printf("max dispatch lag %.1f ms%s%n", maxLagNanos / 1e6,
+                maxLagNanos > 50_000_000 ? " (the load generator could not keep the rate; results are pessimistic)" : "");
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf(Locale.ROOT, "%-10s %,10d %,10.0f/s %,8d %10.2f %10.2f %10.2f %10.2f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? Double.NaN : histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static void writeHistograms(Path directory, String label, Map<Operation, Stats> stats) throws Exception {
+        Files.createDirectories(directory);
+        String prefix = label.replaceAll("[^A-Za-z0-9._-]", "_");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Path file = directory.resolve(prefix + "-" + entry.getKey().key + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().histogram().outputPercentileDistribution(out, 1e6);
+            }
+            System.out.println("wrote " + file);
+        }
+    }
+
+    /**
+     * Liest den Anfragemix im Format `calculate=20,get=70,update=10` und liefert die Gewichte je {@link Operation}.
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] keyAndWeight = part.trim().split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid benchmark.mix entry: " + part);
+            }
+            weights[Operation.of(keyAndWeight[0].trim()).ordinal()] = Integer.parseInt(keyAndWeight[1].trim());
+        }
+        if (IntStream.of(weights).sum() <= 0) {
+            throw new IllegalArgumentException("benchmark.mix needs at least one positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static Operation pick(int[] mix, int totalWeight, SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : Operation.values()) {
+            value -= mix[operation.ordinal()];
+            if (value < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private static String quote(int i) {
+        return "{\"annualKilometers\":" + (i * 37 % 40_000) + ",\"registrationOffice\":\"" + OFFICES[i % OFFICES.length]
+                + "\",\"vehicleType\":\"" + VEHICLES[i % VEHICLES.length] + "\"}";
+    }
+
+    /**
+     * Die Operationen des Anfragemixes mit ihrem Namen in `benchmark.mix`.
+     */
+    private enum Operation {
+        CALCULATE("calculate"),
+        GET("get"),
+        UPDATE("update");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in benchmark.mix: " + key);
+        }
+
+        HttpRequest request(String baseUrl, long id, int i) {
+            return switch (this) {
+                case CALCULATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/insurance/calculate"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(quote(i)))
+                        .build();
+                case GET -> HttpRequest.newBuilder(URI.create(baseUrl + "/insurance/" + id))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET()
+                        .build();
+                case UPDATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/insurance/" + id))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(quote(i)))
+                        .build();
+            };
+        }
+    }
+
+    /**
+     * Die Antwortzeiten erfolgreicher Anfragen in Nanosekunden und die Zahl der Fehler einer Operation.
+     */
+    private record Stats(Histogram histogram, LongAdder errors) {
+    }
+}
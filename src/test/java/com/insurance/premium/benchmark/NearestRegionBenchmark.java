@@ -0,0 +1,84 @@
+package com.insurance.premium.benchmark;
+
+import com.insurance.premium.config.RegionSnapshotConfig;
+import com.insurance.premium.service.NearestRegionIndex;
+import com.insurance.premium.snapshot.RegionSnapshot;
+
+import java.util.Random;
+
+/**
+ * Vergleicht die Suche nach der nächstgelegenen Region im k-d-Baum von {@link NearestRegionIndex}
+ * mit einem linearen Durchlauf über alle Regionen.
+ * <p>
+ * Systemeigenschaften: `benchmark.queries` (Standard 100000) für die Anzahl zufälliger Koordinaten in Deutschland.
+ */
+public class NearestRegionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int queries = Integer.getInteger("benchmark.queries", 100_000);
+        RegionSnapshot snapshot = new RegionSnapshotConfig().regionSnapshot();
+        NearestRegionIndex index = new NearestRegionIndex(snapshot);
+
+        double[] points = new double[snapshot.recordCount() * 3];
+        for (int record = 0; record < snapshot.recordCount(); record++) {
+            toUnitVector(snapshot.latitude(record), snapshot.longitude(record), points, record * 3);
+        }
+
+        Random random = new Random(42);
+        double[] queryLatitudes = new double[queries];
+        double[] queryLongitudes = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            queryLatitudes[i] = 47.3 + random.nextDouble() * 7.7;
+            queryLongitudes[i] = 5.9 + random.nextDouble() * 9.1;
+        }
+
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                checksum += index.nearestRecord(queryLatitudes[i], queryLongitudes[i]);
+            }
+            double kdTree = (System.nanoTime() - start) / (double) queries;
+
+            int linearQueries = Math.max(1, queries / 100);
+            start = System.nanoTime();
+            for (int i = 0; i < linearQueries; i++) {
+                checksum += linearScan(points, queryLatitudes[i], queryLongitudes[i]);
+            }
+            double linear = (System.nanoTime() - start) / (double) linearQueries;
+
+            System.out.printf("round %d: k-d tree %,.0f ns/query, linear scan %,.0f ns/query (%.0fx)%n",
+                    round + 1, kdTree, linear, linear / kdTree);
+        }
+        System.out.println("checksum " + checksum);
+    }
+
+    /**
+     * Linearer Durchlauf über vorberechnete Einheitsvektoren, damit beide Verfahren dieselbe Distanzfunktion nutzen.
+     */
+    private static int linearScan(double[] points, double latitude, double longitude) {
+        double[] query = new double[3];
+        toUnitVector(latitude, longitude, query, 0);
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int record = 0; record < points.length / 3; record++) {
+            double dx = points[record * 3] - query[0];
+            double dy = points[record * 3 + 1] - query[1];
+            double dz = points[record * 3 + 2] - query[2];
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = record;
+            }
+        }
+        return nearest;
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        target[offset] = Math.cos(phi) * Math.cos(lambda);
+        target[offset + 1] = Math.cos(phi) * Math.sin(lambda);
+        target[offset + 2] = Math.sin(phi);
+    }
+}
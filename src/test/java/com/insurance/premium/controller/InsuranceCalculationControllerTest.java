@@ -1,24 +1,36 @@
 package com.insurance.premium.controller;
 
 import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.dto.InsuranceCalculationPage;
 import com.insurance.premium.enums.BundeslandISO;
 import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.exception.WriteBehindQueueFullException;
+import com.insurance.premium.service.InsuranceCalculationBatchService;
+import com.insurance.premium.service.InsuranceCalculationExportService;
 import com.insurance.premium.service.InsuranceCalculationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,12 +43,18 @@ class InsuranceCalculationControllerTest {
     @MockBean
     private InsuranceCalculationService insuranceCalculationService;
 
+    @MockBean
+    private InsuranceCalculationBatchService insuranceCalculationBatchService;
+
+    @MockBean
+    private InsuranceCalculationExportService insuranceCalculationExportService;
+
     private InsuranceCalculationDTO insuranceCalculationDTO;
 
     @BeforeEach
     void setUp() {
         double calculatedPremium = calculatePremium(10000, VehicleType.CAR, BundeslandISO.DE_BE);
-        insuranceCalculationDTO = new InsuranceCalculationDTO(1L, 10000, "12345", "Berlin", VehicleType.CAR, calculatedPremium);
+        insuranceCalculationDTO = new InsuranceCalculationDTO(1L, 10000, "12345", "Berlin", VehicleType.CAR, calculatedPremium, null);
     }
 
     private double calculatePremium(int kilometers, VehicleType vehicleType, BundeslandISO region) {
@@ -69,17 +87,99 @@ class InsuranceCalculationControllerTest {
                 .andExpect(jsonPath("$.calculatedPremium").value(insuranceCalculationDTO.calculatedPremium()));
     }
 
+    @Test
+    void quoteInsurance() throws Exception {
+        when(insuranceCalculationService.quote(any(InsuranceCalculationDTO.class))).thenReturn(insuranceCalculationDTO);
+
+        mockMvc.perform(post("/insurance/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":10000,\"postcode\":\"12345\",\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculatedPremium").value(insuranceCalculationDTO.calculatedPremium()));
+    }
+
+    @Test
+    void commitOutdatedQuote() throws Exception {
+        when(insuranceCalculationService.commitQuote(any(InsuranceCalculationDTO.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/insurance/quote/commit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":10000,\"postcode\":\"12345\",\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\",\"calculatedPremium\":99.0}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getAllInsurances() throws Exception {
-        when(insuranceCalculationService.getAll()).thenReturn(List.of(insuranceCalculationDTO));
+        when(insuranceCalculationService.getPage(any(InsuranceCalculationFilter.class), isNull(), eq(100)))
+                .thenReturn(new InsuranceCalculationPage(List.of(insuranceCalculationDTO), null));
 
         mockMvc.perform(get("/insurance"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$[0].annualKilometers").value(10000))
                 .andExpect(jsonPath("$[0].registrationOffice").value("Berlin"))
                 .andExpect(jsonPath("$[0].calculatedPremium").value(insuranceCalculationDTO.calculatedPremium()));
     }
 
+    @Test
+    void getInsurancesPageWithFilterAndNextLink() throws Exception {
+        InsuranceCalculationFilter filter = new InsuranceCalculationFilter(VehicleType.CAR, null, "12345", 0.5, null);
+        when(insuranceCalculationService.getPage(filter, 0L, 1))
+                .thenReturn(new InsuranceCalculationPage(List.of(insuranceCalculationDTO), 1L));
+
+        mockMvc.perform(get("/insurance?afterId=0&limit=1&vehicleType=CAR&postcode=12345&minPremium=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/insurance?vehicleType=CAR&postcode=12345&minPremium=0.5&afterId=1&limit=1>; rel=\"next\""))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void getInsurancesRejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/insurance?limit=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void calculateInsuranceWithoutDatabaseConnectionIsServiceUnavailable() throws Exception {
+        when(insuranceCalculationService.calculateInsurance(any(InsuranceCalculationDTO.class)))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                        new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out after 2000ms.")));
+
+        mockMvc.perform(post("/insurance/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":10000,\"postcode\":\"12345\",\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void calculateInsuranceWithFullWriteBehindQueueIsServiceUnavailable() throws Exception {
+        when(insuranceCalculationService.calculateInsurance(any(InsuranceCalculationDTO.class)))
+                .thenThrow(new WriteBehindQueueFullException(10000));
+
+        mockMvc.perform(post("/insurance/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":10000,\"postcode\":\"12345\",\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void exportInsurancesAsGzipNdjson() throws Exception {
+        mockMvc.perform(get("/insurance/export?format=ndjson&gzip=true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"insurance-calculations.ndjson.gz\""));
+    }
+
+    @Test
+    void exportInsurancesRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/insurance/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getInsuranceById() throws Exception {
         when(insuranceCalculationService.getById(anyLong())).thenReturn(Optional.of(insuranceCalculationDTO));
@@ -91,10 +191,23 @@ class InsuranceCalculationControllerTest {
                 .andExpect(jsonPath("$.calculatedPremium").value(insuranceCalculationDTO.calculatedPremium()));
     }
 
+    @Test
+    void getInsuranceByIdNotModified() throws Exception {
+        when(insuranceCalculationService.getById(1L)).thenReturn(Optional.of(insuranceCalculationDTO));
+        String eTag = mockMvc.perform(get("/insurance/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/insurance/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void updateInsurance() throws Exception {
         double updatedPremium = calculatePremium(15000, VehicleType.CAR, BundeslandISO.DE_BE);
-        InsuranceCalculationDTO updatedDTO = new InsuranceCalculationDTO(1L, 15000, "12345", "Berlin", VehicleType.CAR, updatedPremium);
+        InsuranceCalculationDTO updatedDTO = new InsuranceCalculationDTO(1L, 15000, "12345", "Berlin", VehicleType.CAR, updatedPremium, null);
 
         when(insuranceCalculationService.update(anyLong(), any(InsuranceCalculationDTO.class))).thenReturn(Optional.of(updatedDTO));
 
@@ -106,6 +219,37 @@ class InsuranceCalculationControllerTest {
                 .andExpect(jsonPath("$.calculatedPremium").value(updatedPremium));
     }
 
+    @Test
+    void updateInsuranceReturnsNotFoundForUnknownId() throws Exception {
+        when(insuranceCalculationService.update(anyLong(), any(InsuranceCalculationDTO.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(put("/insurance/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":15000,\"vehicleType\":\"CAR\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchInsurance() throws Exception {
+        double patchedPremium = calculatePremium(15000, VehicleType.CAR, BundeslandISO.DE_BE);
+        InsuranceCalculationDTO patchedDTO = new InsuranceCalculationDTO(1L, 15000, "12345", "Berlin", VehicleType.CAR, patchedPremium, null);
+        InsuranceCalculationDTO changes = new InsuranceCalculationDTO(null, 15000, null, null, null, null, null);
+
+        when(insuranceCalculationService.patch(1L, changes)).thenReturn(Optional.of(patchedDTO));
+        when(insuranceCalculationService.patch(2L, changes)).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/insurance/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":15000}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.postcode").value("12345"))
+                .andExpect(jsonPath("$.calculatedPremium").value(patchedPremium));
+        mockMvc.perform(patch("/insurance/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"annualKilometers\":15000}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void deleteInsurance() throws Exception {
         mockMvc.perform(delete("/insurance/1"))
@@ -0,0 +1,123 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.service.InsuranceCalculationBatchService;
+import com.insurance.premium.service.InsuranceCalculationExportService;
+import com.insurance.premium.service.InsuranceCalculationExportService.ExportFormat;
+import com.insurance.premium.service.InsuranceCalculationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the streaming endpoints on a real Tomcat whose default async timeout is shortened to one second,
+ * so a response streamed for longer is only complete if the application sets its own async timeout.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class InsuranceCalculationStreamingTest {
+
+    private static final long CONTAINER_ASYNC_TIMEOUT_MILLIS = 1000;
+    private static final int LINES = 5;
+    private static final long PAUSE_MILLIS = 500;
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class,
+            TaskExecutionAutoConfiguration.class})
+    @Import(InsuranceCalculationController.class)
+    static class TestConfig {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT_MILLIS));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private InsuranceCalculationService insuranceCalculationService;
+
+    @MockBean
+    private InsuranceCalculationBatchService insuranceCalculationBatchService;
+
+    @MockBean
+    private InsuranceCalculationExportService insuranceCalculationExportService;
+
+    @Test
+    void exportStreamsLongerThanContainerAsyncTimeout() throws Exception {
+        // Arrange
+        when(insuranceCalculationExportService.export(eq(ExportFormat.NDJSON), anyBoolean(), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            for (int i = 0; i < LINES; i++) {
+                writeSlowly(output, "{\"id\":" + i + "}\n");
+            }
+            return (long) LINES;
+        });
+
+        // Act
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/insurance/export?format=ndjson")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals(LINES, response.body().lines().count());
+    }
+
+    @Test
+    void batchStreamsLongerThanContainerAsyncTimeout() throws Exception {
+        // Arrange
+        when(insuranceCalculationBatchService.calculate(any(), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            for (int i = 0; i < LINES; i++) {
+                writeSlowly(output, "{\"id\":" + i + "}\n");
+            }
+            return (long) LINES;
+        });
+
+        // Act
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/insurance/calculate/batch"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"annualKilometers\":5000}\n"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals(LINES, response.body().lines().count());
+    }
+
+    private static void writeSlowly(OutputStream output, String line) throws Exception {
+        output.write(line.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        Thread.sleep(PAUSE_MILLIS);
+    }
+}
@@ -0,0 +1,116 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationPage;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.service.ReactiveInsuranceCalculationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveInsuranceCalculationController.class)
+@ActiveProfiles("reactive")
+class ReactiveInsuranceCalculationControllerTest {
+
+    private static final InsuranceCalculationDTO CALCULATION = new InsuranceCalculationDTO(1L, 10000, "12345", "Berlin", VehicleType.CAR, 0.75, null);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveInsuranceCalculationService insuranceCalculationService;
+
+    @Test
+    void calculateInsurance() {
+        when(insuranceCalculationService.calculateInsurance(any(InsuranceCalculationDTO.class))).thenReturn(Mono.just(CALCULATION));
+
+        webTestClient.post().uri("/insurance/calculate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"annualKilometers\":10000,\"postcode\":\"12345\",\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.calculatedPremium").isEqualTo(0.75);
+    }
+
+    @Test
+    void getByIdReturnsETagAndNotModified() {
+        when(insuranceCalculationService.getById(1L)).thenReturn(Mono.just(CALCULATION));
+        String eTag = InsuranceCalculationController.eTag(CALCULATION);
+
+        webTestClient.get().uri("/insurance/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+        webTestClient.get().uri("/insurance/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void getByIdReturnsNotFound() {
+        when(insuranceCalculationService.getById(2L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/insurance/2")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getAllReturnsLinkToNextPageAndRejectsInvalidLimit() {
+        when(insuranceCalculationService.getPage(any(), isNull(), eq(1)))
+                .thenReturn(Mono.just(new InsuranceCalculationPage(List.of(CALCULATION), 1L)));
+
+        webTestClient.get().uri("/insurance?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueMatches(HttpHeaders.LINK, "<.*/insurance\\?afterId=1&limit=1>; rel=\"next\"")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1);
+        webTestClient.get().uri("/insurance?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updatePatchAndCommitQuoteMapEmptyResults() {
+        when(insuranceCalculationService.update(eq(2L), any(InsuranceCalculationDTO.class))).thenReturn(Mono.empty());
+        when(insuranceCalculationService.patch(eq(2L), any(InsuranceCalculationDTO.class))).thenReturn(Mono.empty());
+        when(insuranceCalculationService.commitQuote(any(InsuranceCalculationDTO.class))).thenReturn(Mono.empty());
+        when(insuranceCalculationService.delete(1L)).thenReturn(Mono.empty());
+
+        webTestClient.put().uri("/insurance/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"annualKilometers\":10000,\"vehicleType\":\"CAR\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.patch().uri("/insurance/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"annualKilometers\":10000}")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post().uri("/insurance/quote/commit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"annualKilometers\":10000,\"vehicleType\":\"CAR\",\"calculatedPremium\":9.9}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.delete().uri("/insurance/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,69 @@
+package com.insurance.premium.controller;
+
+import com.insurance.premium.dto.NearestRegionDTO;
+import com.insurance.premium.dto.RegionSuggestionDTO;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.service.NearestRegionIndex;
+import com.insurance.premium.service.RegionAutocompleteIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RegionController.class)
+class RegionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NearestRegionIndex nearestRegionIndex;
+
+    @MockBean
+    private RegionAutocompleteIndex regionAutocompleteIndex;
+
+    @Test
+    void findNearestRegion() throws Exception {
+        NearestRegionDTO region = new NearestRegionDTO("79189", "Bad Krozingen", "Bad Krozingen", "Breisgau-Hochschwarzwald",
+                BundeslandISO.DE_BW, 47.91582, 7.69985, 0.4);
+        when(nearestRegionIndex.findNearest(47.92, 7.70)).thenReturn(Optional.of(region));
+
+        mockMvc.perform(get("/regions/nearest?latitude=47.92&longitude=7.70"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.postcode").value("79189"))
+                .andExpect(jsonPath("$.bundesland").value("DE_BW"))
+                .andExpect(jsonPath("$.distanceKm").value(0.4));
+    }
+
+    @Test
+    void findNearestRegionRejectsInvalidCoordinate() throws Exception {
+        mockMvc.perform(get("/regions/nearest?latitude=91&longitude=7.70"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void autocompleteCities() throws Exception {
+        RegionSuggestionDTO suggestion = new RegionSuggestionDTO("79189", "Bad Krozingen", "Breisgau-Hochschwarzwald", BundeslandISO.DE_BW);
+        when(regionAutocompleteIndex.suggest("bad k", 5)).thenReturn(List.of(suggestion));
+
+        mockMvc.perform(get("/regions/autocomplete?q=bad k&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].postcode").value("79189"))
+                .andExpect(jsonPath("$[0].city").value("Bad Krozingen"));
+    }
+
+    @Test
+    void autocompleteRejectsBlankPrefix() throws Exception {
+        mockMvc.perform(get("/regions/autocomplete?q= "))
+                .andExpect(status().isBadRequest());
+    }
+}
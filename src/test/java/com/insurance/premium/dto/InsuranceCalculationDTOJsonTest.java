@@ -0,0 +1,78 @@
+package com.insurance.premium.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.insurance.premium.enums.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InsuranceCalculationDTOJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testRoundTripKeepsAllFieldsAndWritesNulls() throws Exception {
+        // Arrange
+        var dto = new InsuranceCalculationDTO(42L, 12000, "79189", "Baden-Württemberg", VehicleType.MOTORCYCLE, 1.95, "2024-01");
+        var empty = new InsuranceCalculationDTO(null, null, null, null, null, null, null);
+
+        // Act
+        String json = objectMapper.writeValueAsString(dto);
+        String emptyJson = objectMapper.writeValueAsString(empty);
+
+        // Assert
+        assertEquals("{\"id\":42,\"annualKilometers\":12000,\"postcode\":\"79189\",\"registrationOffice\":\"Baden-Württemberg\","
+                + "\"vehicleType\":\"MOTORCYCLE\",\"calculatedPremium\":1.95,\"tariffVersion\":\"2024-01\"}", json);
+        assertEquals("{\"id\":null,\"annualKilometers\":null,\"postcode\":null,\"registrationOffice\":null,"
+                + "\"vehicleType\":null,\"calculatedPremium\":null,\"tariffVersion\":null}", emptyJson);
+        assertEquals(dto, objectMapper.readValue(json, InsuranceCalculationDTO.class));
+        assertEquals(empty, objectMapper.readValue(emptyJson, InsuranceCalculationDTO.class));
+    }
+
+    @Test
+    void testVehicleTypeIsCaseInsensitiveAndFallsBackToDefaultFactor() throws Exception {
+        // Act
+        List<VehicleType> vehicleTypes = List.of(
+                read("{\"vehicleType\":\"car\"}").vehicleType(),
+                read("{\"vehicleType\":\"Default_Factor\"}").vehicleType(),
+                read("{\"vehicleType\":\"spaceship\"}").vehicleType(),
+                read("{\"vehicleType\":\"\"}").vehicleType(),
+                read("{\"vehicleType\":{\"nested\":[1,2]},\"annualKilometers\":5000}").vehicleType());
+
+        // Assert
+        assertEquals(List.of(VehicleType.CAR, VehicleType.DEFAULT_FACTOR, VehicleType.DEFAULT_FACTOR,
+                VehicleType.DEFAULT_FACTOR, VehicleType.DEFAULT_FACTOR), vehicleTypes);
+        assertEquals(5000, read("{\"vehicleType\":{\"nested\":[1,2]},\"annualKilometers\":5000}").annualKilometers());
+    }
+
+    @Test
+    void testValuesOfOtherJsonTypesAreCoercedLikeRecordBinding() throws Exception {
+        // Act
+        InsuranceCalculationDTO dto = read("{\"id\":\"7\",\"annualKilometers\":\"15000\",\"postcode\":12345,\"calculatedPremium\":2}");
+
+        // Assert
+        assertEquals(new InsuranceCalculationDTO(7L, 15000, "12345", null, null, 2.0, null), dto);
+    }
+
+    @Test
+    void testUnknownPropertiesFollowObjectMapperConfiguration() throws Exception {
+        // Arrange
+        String json = "{\"annualKilometers\":5000,\"extra\":{\"a\":[1,{\"b\":2}]},\"vehicleType\":\"van\"}";
+        ObjectMapper lenient = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // Act
+        InsuranceCalculationDTO dto = lenient.readValue(json, InsuranceCalculationDTO.class);
+
+        // Assert
+        assertEquals(new InsuranceCalculationDTO(null, 5000, null, null, VehicleType.VAN, null, null), dto);
+        assertThrows(UnrecognizedPropertyException.class, () -> read(json));
+    }
+
+    private InsuranceCalculationDTO read(String json) throws Exception {
+        return objectMapper.readValue(json, InsuranceCalculationDTO.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurance.premium.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BundeslandISOTest {
+
+    @Test
+    void testFromBundeslandAcceptsNamesCodesAndFoldedSpellings() {
+        assertEquals(BundeslandISO.DE_BW, BundeslandISO.fromBundesland("Baden-Württemberg"));
+        assertEquals(BundeslandISO.DE_BW, BundeslandISO.fromBundesland("baden-wuerttemberg"));
+        assertEquals(BundeslandISO.DE_BW, BundeslandISO.fromBundesland("BW"));
+        assertEquals(BundeslandISO.DE_BW, BundeslandISO.fromBundesland("DE-BW"));
+        assertEquals(BundeslandISO.DE_TH, BundeslandISO.fromBundesland("THÜRINGEN"));
+        assertEquals(BundeslandISO.DE_BE, BundeslandISO.fromBundesland("berlin"));
+        assertEquals(BundeslandISO.DE_NW, BundeslandISO.fromBundesland("Nordrhein Westfalen"));
+    }
+
+    @Test
+    void testFromBundeslandFallsBackToDefault() {
+        // Arrange
+        long fallbacks = BundeslandISO.fallbacks();
+        long misses = BundeslandISO.lookupMisses();
+
+        // Act
+        BundeslandISO unknown = BundeslandISO.fromBundesland("Atlantis");
+        BundeslandISO missing = BundeslandISO.fromBundesland(null);
+
+        // Assert
+        assertEquals(BundeslandISO.DE_DE, unknown);
+        assertEquals(BundeslandISO.DE_DE, missing);
+        assertTrue(BundeslandISO.fallbacks() >= fallbacks + 2);
+        assertTrue(BundeslandISO.lookupMisses() >= misses + 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.insurance.premium.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VehicleTypeTest {
+
+    @Test
+    void testFromNameIgnoresCase() {
+        assertEquals(VehicleType.CAR, VehicleType.fromName("car"));
+        assertEquals(VehicleType.CAR, VehicleType.fromName("Car"));
+        assertEquals(VehicleType.SNOWMOBILE, VehicleType.fromName("SnowMobile"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("default_factor"));
+    }
+
+    @Test
+    void testFromNameDoesNotIgnoreSeparatorsOrPunctuation() {
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("S-U-V"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("c.a.r"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("snow mobile"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("TRUCK!!"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName(" car"));
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName("defaultfactor"));
+    }
+
+    @Test
+    void testFromNameInBufferMatchesOnlyTheSlice() {
+        // Arrange
+        char[] buffer = "xxS-U-VSuvxx".toCharArray();
+
+        // Act / Assert
+        assertEquals(VehicleType.DEFAULT_FACTOR, VehicleType.fromName(buffer, 2, 5));
+        assertEquals(VehicleType.SUV, VehicleType.fromName(buffer, 7, 3));
+    }
+}
@@ -0,0 +1,73 @@
+package com.insurance.premium.repository;
+
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class InsuranceCalculationRepositoryTest {
+
+    @Autowired
+    private InsuranceCalculationRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testOverwriteUpdatesExistingRowAndNeverInserts() {
+        // Arrange
+        InsuranceCalculation saved = repository.saveAndFlush(calculation(null, 5000, VehicleType.CAR, 0.375));
+        entityManager.clear();
+        Instant createdAt = repository.findById(saved.getId()).orElseThrow().getCreatedAt();
+        entityManager.clear();
+        InsuranceCalculation changed = calculation(saved.getId(), 15000, VehicleType.TRUCK, 3.0);
+        changed.setTariffVersion("2024-02");
+        InsuranceCalculation unknown = calculation(saved.getId() + 1, 15000, VehicleType.TRUCK, 3.0);
+
+        // Act
+        int updated = repository.overwrite(changed);
+        int missing = repository.overwrite(unknown);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        // the creation timestamp is not part of the update
+        changed.setCreatedAt(createdAt);
+        assertNotNull(createdAt);
+        assertEquals(changed, repository.findById(saved.getId()).orElseThrow());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testFindForUpdateByIdReturnsRowOrEmpty() {
+        // Arrange
+        InsuranceCalculation saved = repository.saveAndFlush(calculation(null, 5000, VehicleType.CAR, 0.375));
+        entityManager.clear();
+
+        // Act & Assert
+        assertEquals(saved.getId(), repository.findForUpdateById(saved.getId()).orElseThrow().getId());
+        assertTrue(repository.findForUpdateById(saved.getId() + 1).isEmpty());
+    }
+
+    private static InsuranceCalculation calculation(Long id, int annualKilometers, VehicleType vehicleType, double premium) {
+        InsuranceCalculation calculation = new InsuranceCalculation();
+        calculation.setId(id);
+        calculation.setAnnualKilometers(annualKilometers);
+        calculation.setPostcode("10115");
+        calculation.setRegistrationOffice("Berlin");
+        calculation.setVehicleType(vehicleType);
+        calculation.setCalculatedPremium(premium);
+        return calculation;
+    }
+}
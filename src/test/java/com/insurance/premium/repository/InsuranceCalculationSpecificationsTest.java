@@ -0,0 +1,75 @@
+package com.insurance.premium.repository;
+
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class InsuranceCalculationSpecificationsTest {
+
+    @Autowired
+    private InsuranceCalculationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 10; i++) {
+            InsuranceCalculation calculation = new InsuranceCalculation();
+            calculation.setAnnualKilometers(1000 * i);
+            calculation.setPostcode(i % 2 == 0 ? "10115" : "79189");
+            calculation.setRegistrationOffice(i % 2 == 0 ? "Berlin" : "Baden-Württemberg");
+            calculation.setVehicleType(i % 3 == 0 ? VehicleType.TRUCK : VehicleType.CAR);
+            calculation.setCalculatedPremium((double) i);
+            repository.save(calculation);
+        }
+    }
+
+    @Test
+    void testPagesThroughFilteredRowsByCursor() {
+        // Arrange
+        InsuranceCalculationFilter filter = new InsuranceCalculationFilter(VehicleType.CAR, null, null, 1.0, 8.0);
+
+        // Act
+        List<InsuranceCalculation> firstPage = page(filter, null, 2);
+        List<InsuranceCalculation> secondPage = page(filter, firstPage.get(1).getId(), 2);
+        List<InsuranceCalculation> lastPage = page(filter, secondPage.get(1).getId(), 2);
+
+        // Assert
+        assertEquals(List.of(1.0, 2.0), premiums(firstPage));
+        assertEquals(List.of(4.0, 5.0), premiums(secondPage));
+        assertEquals(List.of(7.0, 8.0), premiums(lastPage));
+        assertTrue(page(filter, lastPage.get(1).getId(), 2).isEmpty());
+    }
+
+    @Test
+    void testFiltersByRegistrationOfficeAndPostcode() {
+        // Arrange
+        InsuranceCalculationFilter filter = new InsuranceCalculationFilter(null, "Berlin", "10115", null, null);
+
+        // Act
+        List<InsuranceCalculation> result = page(filter, null, 100);
+
+        // Assert
+        assertEquals(List.of(0.0, 2.0, 4.0, 6.0, 8.0), premiums(result));
+    }
+
+    private List<InsuranceCalculation> page(InsuranceCalculationFilter filter, Long afterId, int limit) {
+        return repository.findBy(InsuranceCalculationSpecifications.matching(filter, afterId),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all());
+    }
+
+    private static List<Double> premiums(List<InsuranceCalculation> calculations) {
+        return calculations.stream().map(InsuranceCalculation::getCalculatedPremium).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.insurance.premium.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.enums.VehicleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class InsuranceCalculationBatchServiceTest {
+
+    @Mock
+    private InsuranceCalculationService insuranceCalculationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private InsuranceCalculationBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchService = new InsuranceCalculationBatchService(insuranceCalculationService, objectMapper);
+
+        AtomicLong ids = new AtomicLong();
+        when(insuranceCalculationService.calculateInsurances(anyList())).thenAnswer(invocation -> {
+            List<InsuranceCalculationDTO> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(dto -> new InsuranceCalculationDTO(ids.incrementAndGet(), dto.annualKilometers(), dto.postcode(),
+                            dto.registrationOffice(), dto.vehicleType(), 1.0, null))
+                    .toList();
+        });
+    }
+
+    @Test
+    void testCalculateFromNdjson() throws Exception {
+        // Arrange
+        String input = """
+                {"annualKilometers":10000,"postcode":"12345","registrationOffice":"Berlin","vehicleType":"car"}
+                {"annualKilometers":20000,"postcode":"12345","registrationOffice":"Bayern","vehicleType":"TRUCK"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = batchService.calculate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals(VehicleType.CAR, objectMapper.readValue(lines[0], InsuranceCalculationDTO.class).vehicleType());
+        assertEquals(2L, objectMapper.readValue(lines[1], InsuranceCalculationDTO.class).id());
+    }
+
+    @Test
+    void testCalculateFromJsonArrayInChunks() throws Exception {
+        // Arrange
+        int size = InsuranceCalculationBatchService.CHUNK_SIZE + 1;
+        StringBuilder input = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            input.append(i == 0 ? "" : ",").append("{\"annualKilometers\":5000,\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}");
+        }
+        input.append("]");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = batchService.calculate(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        assertEquals(size, count);
+        assertEquals(size, output.toString(StandardCharsets.UTF_8).split("\n").length);
+        verify(insuranceCalculationService, times(2)).calculateInsurances(anyList());
+    }
+
+    @Test
+    void testInvalidInputEndsStreamWithErrorRecord() throws Exception {
+        // Arrange
+        // the third record is cut off, so the second (unstored) chunk is discarded
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < InsuranceCalculationBatchService.CHUNK_SIZE + 1; i++) {
+            input.append("{\"annualKilometers\":5000,\"registrationOffice\":\"Berlin\",\"vehicleType\":\"CAR\"}\n");
+        }
+        input.append("{\"annualKilometers\":");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = batchService.calculate(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode error = objectMapper.readTree(lines[lines.length - 1]);
+        assertEquals(InsuranceCalculationBatchService.CHUNK_SIZE, count);
+        assertEquals(InsuranceCalculationBatchService.CHUNK_SIZE + 1, lines.length);
+        assertTrue(error.get("error").asText().startsWith("Invalid input"));
+        assertEquals(InsuranceCalculationBatchService.CHUNK_SIZE, error.get("processed").asLong());
+    }
+
+    @Test
+    void testFailedCalculationEndsStreamWithErrorRecord() throws Exception {
+        // Arrange
+        when(insuranceCalculationService.calculateInsurances(anyList())).thenThrow(new IllegalStateException("database down"));
+        String input = "{\"annualKilometers\":10000,\"registrationOffice\":\"Berlin\",\"vehicleType\":\"car\"}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = batchService.calculate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        assertEquals(0, count);
+        assertEquals("{\"error\":\"Calculation failed\",\"processed\":0}\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.CacheConfig;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class InsuranceCalculationCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, InsuranceCalculationService.class})
+    static class TestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.INSURANCE_CALCULATIONS);
+        }
+    }
+
+    @MockBean
+    private InsuranceCalculationRepository repository;
+
+    @MockBean
+    private PostcodeIndex postcodeIndex;
+
+    @MockBean
+    private InsuranceCalculationWriteBehind writeBehind;
+
+    @MockBean
+    private PremiumMetrics premiumMetrics;
+
+    @MockBean
+    private TariffEngine tariffEngine;
+
+    @Autowired
+    private InsuranceCalculationService insuranceCalculationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS).clear();
+        InsuranceCalculation calculation = new InsuranceCalculation();
+        calculation.setId(1L);
+        calculation.setVehicleType(VehicleType.CAR);
+        when(repository.findById(1L)).thenReturn(Optional.of(calculation));
+        when(repository.findById(2L)).thenReturn(Optional.empty());
+        when(tariffEngine.current()).thenReturn(PremiumRateTable.STANDARD);
+        when(repository.save(any(InsuranceCalculation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testGetByIdIsCached() {
+        // Act
+        Optional<InsuranceCalculationDTO> first = insuranceCalculationService.getById(1L);
+        Optional<InsuranceCalculationDTO> second = insuranceCalculationService.getById(1L);
+
+        // Assert
+        assertEquals(first, second);
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testMissingIdIsNotCached() {
+        // Act
+        insuranceCalculationService.getById(2L);
+        insuranceCalculationService.getById(2L);
+
+        // Assert
+        verify(repository, times(2)).findById(2L);
+    }
+
+    @Test
+    void testUpdateAndDeleteEvict() {
+        // Act
+        insuranceCalculationService.getById(1L);
+        insuranceCalculationService.update(1L, new InsuranceCalculationDTO(1L, 5000, null, "Berlin", VehicleType.CAR, null, null));
+        insuranceCalculationService.getById(1L);
+        insuranceCalculationService.delete(1L);
+        insuranceCalculationService.getById(1L);
+
+        // Assert
+        // first getById and one getById after each eviction; update writes without a lookup
+        verify(repository, times(3)).findById(1L);
+    }
+
+    @Test
+    void testCalculateWithIdDoesNotOverwriteCachedCalculation() {
+        // Arrange
+        Optional<InsuranceCalculationDTO> cached = insuranceCalculationService.getById(1L);
+
+        // Act
+        insuranceCalculationService.calculateInsurance(new InsuranceCalculationDTO(1L, 15000, null, "Berlin", VehicleType.TRUCK, null, null));
+
+        // Assert
+        // the client-supplied id is ignored, so the calculation is stored as a new row and the cached one stays valid
+        verify(repository).save(argThat(calculation -> calculation.getId() == null));
+        assertEquals(cached, insuranceCalculationService.getById(1L));
+        verify(repository, times(1)).findById(1L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import com.insurance.premium.service.InsuranceCalculationExportService.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(InsuranceCalculationExportService.class)
+class InsuranceCalculationExportServiceTest {
+
+    @Autowired
+    private InsuranceCalculationExportService exportService;
+
+    @Autowired
+    private InsuranceCalculationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        InsuranceCalculation berlin = new InsuranceCalculation();
+        berlin.setAnnualKilometers(10000);
+        berlin.setPostcode("10115");
+        berlin.setRegistrationOffice("Berlin");
+        berlin.setVehicleType(VehicleType.CAR);
+        berlin.setCalculatedPremium(0.75);
+        berlin.setTariffVersion("2024-01");
+        InsuranceCalculation quoted = new InsuranceCalculation();
+        quoted.setAnnualKilometers(5000);
+        quoted.setRegistrationOffice("Stadt \"Nord\"");
+        quoted.setVehicleType(VehicleType.TRUCK);
+        quoted.setCalculatedPremium(0.6);
+        repository.saveAll(List.of(berlin, quoted));
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(ExportFormat.CSV, false, output);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,annual_kilometers,postcode,registration_office,vehicle_type,calculated_premium,tariff_version", lines[0]);
+        assertTrue(lines[1].endsWith(",10000,\"10115\",\"Berlin\",CAR,0.75,\"2024-01\""));
+        assertTrue(lines[2].endsWith(",5000,,\"Stadt \"\"Nord\"\"\",TRUCK,0.6,"));
+    }
+
+    @Test
+    void testExportGzipNdjson() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(ExportFormat.NDJSON, true, output);
+
+        // Assert
+        assertEquals(2, rows);
+        String ndjson;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ndjson = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"postcode\":\"10115\""));
+        assertTrue(lines[0].contains("\"tariffVersion\":\"2024-01\""));
+        assertTrue(lines[1].contains("\"vehicleType\":\"TRUCK\""));
+    }
+}
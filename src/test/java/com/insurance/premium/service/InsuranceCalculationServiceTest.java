@@ -1,17 +1,23 @@
 package com.insurance.premium.service;
 
 import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.dto.InsuranceCalculationPage;
 import com.insurance.premium.entity.InsuranceCalculation;
 import com.insurance.premium.enums.BundeslandISO;
 import com.insurance.premium.enums.VehicleType;
 import com.insurance.premium.repository.InsuranceCalculationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,22 +26,37 @@ import static org.mockito.Mockito.*;
 
 class InsuranceCalculationServiceTest {
 
+    private static final InsuranceCalculationFilter EMPTY_FILTER = new InsuranceCalculationFilter(null, null, null, null, null);
+
     @Mock
     private InsuranceCalculationRepository repository;
 
+    @Mock
+    private PostcodeIndex postcodeIndex;
+
+    @Mock
+    private InsuranceCalculationWriteBehind writeBehind;
+
+    @Mock
+    private PremiumMetrics premiumMetrics;
+
+    @Mock
+    private TariffEngine tariffEngine;
+
     @InjectMocks
     private InsuranceCalculationService insuranceCalculationService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(tariffEngine.current()).thenReturn(PremiumRateTable.STANDARD);
     }
 
     @Test
     void testCalculateInsuranceForCarWith5000KmInBerlin() {
         // Arrange
         int kilometers = 5000;
-        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(1L, kilometers, "12345", "Berlin", VehicleType.CAR, null);
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(1L, kilometers, "12345", "Berlin", VehicleType.CAR, null, null);
         InsuranceCalculation savedEntity = new InsuranceCalculation();
         savedEntity.setId(1L);
 
@@ -52,13 +73,14 @@ class InsuranceCalculationServiceTest {
         assertTrue(result.isPresent());
         assertEquals(savedEntity.getId(), result.get().id());
         assertEquals(expectedPremium, result.get().calculatedPremium());
+        verify(premiumMetrics).recordCalculation(VehicleType.CAR, BundeslandISO.DE_BE);
     }
 
     @Test
     void testCalculateInsuranceForMotorcycleWith15000KmInBayern() {
         // Arrange
         int kilometers = 15000;
-        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(2L, kilometers, "12345", "Bayern", VehicleType.MOTORCYCLE, null);
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(2L, kilometers, "12345", "Bayern", VehicleType.MOTORCYCLE, null, null);
         InsuranceCalculation savedEntity = new InsuranceCalculation();
         savedEntity.setId(2L);
 
@@ -81,7 +103,7 @@ class InsuranceCalculationServiceTest {
     void testCalculateInsuranceForTruckWith20001KmInBremen() {
         // Arrange
         int kilometers = 20001;
-        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(3L, kilometers, "12345", "Bremen", VehicleType.TRUCK, null);
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(3L, kilometers, "12345", "Bremen", VehicleType.TRUCK, null, null);
         InsuranceCalculation savedEntity = new InsuranceCalculation();
         savedEntity.setId(3L);
 
@@ -101,19 +123,122 @@ class InsuranceCalculationServiceTest {
     }
 
     @Test
-    void testGetAll() {
+    void testCalculateInsuranceResolvesRegionFromPostcode() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(4L, 5000, "80331", null, VehicleType.CAR, null, null);
+        when(postcodeIndex.findBundesland("80331")).thenReturn(BundeslandISO.DE_BY);
+        when(repository.save(any(InsuranceCalculation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Bayern has a region factor of 1.4, CAR has a vehicle factor of 1.0, and 5000 km gives a kilometer factor of 0.5
+        double expectedPremium = 0.5 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BY.getRegionFactor();
+
+        // Act
+        Optional<InsuranceCalculationDTO> result = insuranceCalculationService.calculateInsurance(dto);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Bayern", result.get().registrationOffice());
+        assertEquals(expectedPremium, result.get().calculatedPremium());
+    }
+
+    @Test
+    void testCalculateInsuranceWithWriteBehindEnqueuesInsteadOfSaving() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(5L, 10000, "12345", "Berlin", VehicleType.CAR, null, null);
+        when(writeBehind.isEnabled()).thenReturn(true);
+
+        // Act
+        Optional<InsuranceCalculationDTO> result = insuranceCalculationService.calculateInsurance(dto);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertNull(result.get().id());
+        verify(writeBehind, times(1)).enqueue(any(InsuranceCalculation.class));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testQuoteDoesNotTouchRepository() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 10000, "12345", "Berlin", VehicleType.CAR, null, null);
+        double expectedPremium = 1.0 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor();
+
+        // Act
+        InsuranceCalculationDTO result = insuranceCalculationService.quote(dto);
+
+        // Assert
+        assertNull(result.id());
+        assertEquals(expectedPremium, result.calculatedPremium());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testQuoteUsesActiveTariffAndRecordsItsVersion() {
+        // Arrange
+        Map<VehicleType, Double> vehicleFactors = new EnumMap<>(VehicleType.class);
+        Map<BundeslandISO, Double> regionFactors = new EnumMap<>(BundeslandISO.class);
+        for (VehicleType vehicleType : VehicleType.values()) {
+            vehicleFactors.put(vehicleType, 2.0);
+        }
+        for (BundeslandISO region : BundeslandISO.values()) {
+            regionFactors.put(region, 3.0);
+        }
+        PremiumRateTable tariff = PremiumRateTable.of("2025-01", vehicleFactors, regionFactors, new int[]{10000}, new double[]{1.0, 4.0});
+        when(tariffEngine.current()).thenReturn(tariff);
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 12000, "12345", "Berlin", VehicleType.CAR, null, "1999-01");
+
+        // Act
+        InsuranceCalculationDTO result = insuranceCalculationService.quote(dto);
+
+        // Assert
+        assertEquals(4.0 * 2.0 * 3.0, result.calculatedPremium());
+        assertEquals("2025-01", result.tariffVersion());
+    }
+
+    @Test
+    void testCommitQuoteRejectsChangedPremium() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 10000, "12345", "Berlin", VehicleType.CAR, 99.0, null);
+
+        // Act
+        Optional<InsuranceCalculationDTO> result = insuranceCalculationService.commitQuote(dto);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(repository, never()).save(any(InsuranceCalculation.class));
+    }
+
+    @Test
+    void testGetPage() {
+        // Arrange
+        InsuranceCalculation first = new InsuranceCalculation();
+        first.setId(11L);
+        InsuranceCalculation second = new InsuranceCalculation();
+        second.setId(12L);
+        doReturn(List.of(first, second)).when(repository).findBy(ArgumentMatchers.<Specification<InsuranceCalculation>>any(), any());
+
+        // Act
+        InsuranceCalculationPage result = insuranceCalculationService.getPage(EMPTY_FILTER, 10L, 1);
+
+        // Assert
+        assertEquals(1, result.items().size());
+        assertEquals(11L, result.items().get(0).id());
+        assertEquals(11L, result.nextAfterId());
+    }
+
+    @Test
+    void testGetLastPage() {
         // Arrange
         InsuranceCalculation calculation = new InsuranceCalculation();
         calculation.setId(1L);
-        when(repository.findAll()).thenReturn(List.of(calculation));
+        doReturn(List.of(calculation)).when(repository).findBy(ArgumentMatchers.<Specification<InsuranceCalculation>>any(), any());
 
         // Act
-        List<InsuranceCalculationDTO> result = insuranceCalculationService.getAll();
+        InsuranceCalculationPage result = insuranceCalculationService.getPage(EMPTY_FILTER, null, 10);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(1L, result.get(0).id());
+        assertEquals(1, result.items().size());
+        assertNull(result.nextAfterId());
     }
 
     @Test
@@ -134,24 +259,67 @@ class InsuranceCalculationServiceTest {
     @Test
     void testUpdate() {
         // Arrange
-        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(1L, 10000, "12345", "Berlin", VehicleType.CAR, null);
-        InsuranceCalculation existingCalculation = new InsuranceCalculation();
-        existingCalculation.setId(1L);
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 10000, "12345", "Berlin", VehicleType.CAR, null, null);
 
         // Updating the premium calculation with Berlin and CAR factors
         double expectedPremium = 1.0 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor();
-        existingCalculation.setCalculatedPremium(expectedPremium);
 
-        when(repository.findById(1L)).thenReturn(Optional.of(existingCalculation));
-        when(repository.save(any(InsuranceCalculation.class))).thenReturn(existingCalculation);
+        when(repository.overwrite(any(InsuranceCalculation.class))).thenReturn(1);
 
         // Act
         Optional<InsuranceCalculationDTO> result = insuranceCalculationService.update(1L, dto);
 
         // Assert
         assertTrue(result.isPresent());
+        assertEquals(1L, result.get().id());
         assertEquals(expectedPremium, result.get().calculatedPremium());
-        verify(repository, times(1)).save(any(InsuranceCalculation.class));
+        assertEquals(PremiumRateTable.STANDARD_VERSION, result.get().tariffVersion());
+        // a single UPDATE, without loading or merging the row first
+        verify(repository, times(1)).overwrite(argThat(calculation -> calculation.getId() == 1L
+                && calculation.getCalculatedPremium() == expectedPremium));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any(InsuranceCalculation.class));
+    }
+
+    @Test
+    void testUpdateOfUnknownIdReturnsEmptyAndInsertsNothing() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 10000, "12345", "Berlin", VehicleType.CAR, null, null);
+        when(repository.overwrite(any(InsuranceCalculation.class))).thenReturn(0);
+
+        // Act
+        Optional<InsuranceCalculationDTO> result = insuranceCalculationService.update(2L, dto);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(repository, never()).save(any(InsuranceCalculation.class));
+    }
+
+    @Test
+    void testPatchChangesOnlySuppliedFieldsAndRecalculatesPremium() {
+        // Arrange
+        InsuranceCalculation existing = new InsuranceCalculation();
+        existing.setId(1L);
+        existing.setAnnualKilometers(5000);
+        existing.setPostcode("12345");
+        existing.setRegistrationOffice("Berlin");
+        existing.setVehicleType(VehicleType.CAR);
+        existing.setCalculatedPremium(0.375);
+        when(repository.findForUpdateById(1L)).thenReturn(Optional.of(existing));
+        when(repository.findForUpdateById(2L)).thenReturn(Optional.empty());
+        when(repository.overwrite(any(InsuranceCalculation.class))).thenReturn(1);
+        InsuranceCalculationDTO changes = new InsuranceCalculationDTO(null, null, null, null, VehicleType.TRUCK, 99.0, null);
+
+        // Act
+        Optional<InsuranceCalculationDTO> result = insuranceCalculationService.patch(1L, changes);
+        Optional<InsuranceCalculationDTO> missing = insuranceCalculationService.patch(2L, changes);
+
+        // Assert
+        double expectedPremium = 0.5 * VehicleType.TRUCK.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor();
+        assertEquals(Optional.of(new InsuranceCalculationDTO(1L, 5000, "12345", "Berlin", VehicleType.TRUCK, expectedPremium,
+                PremiumRateTable.STANDARD_VERSION)), result);
+        assertTrue(missing.isEmpty());
+        verify(repository, times(1)).overwrite(any(InsuranceCalculation.class));
     }
 
     @Test
@@ -0,0 +1,207 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.WriteBehindProperties;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.exception.WriteBehindQueueFullException;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class InsuranceCalculationWriteBehindTest {
+
+    private final InsuranceCalculationRepository repository = mock(InsuranceCalculationRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<InsuranceCalculation>> batches = new CopyOnWriteArrayList<>();
+
+    private InsuranceCalculationWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        // the flusher reuses its batch list, so every saved batch is copied
+        when(repository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<InsuranceCalculation> batch = new ArrayList<>();
+            invocation.<Iterable<InsuranceCalculation>>getArgument(0).forEach(batch::add);
+            batches.add(batch);
+            return batch;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void testFlushesWhenBatchIsFull() throws Exception {
+        // Arrange
+        writeBehind = start(100, 3, Duration.ofSeconds(3), Duration.ofSeconds(1));
+
+        // Act
+        enqueue(3);
+
+        // Assert
+        // the batch is saved well before the flush interval, so the batch size triggered the flush
+        awaitTrue(() -> savedCount() == 3, Duration.ofMillis(1500));
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testFlushesPartialBatchAfterFlushInterval() throws Exception {
+        // Arrange
+        writeBehind = start(100, 100, Duration.ofMillis(50), Duration.ofSeconds(1));
+
+        // Act
+        enqueue(2);
+
+        // Assert
+        awaitTrue(() -> savedCount() == 2, Duration.ofSeconds(5));
+        assertTrue(writeBehind.isRunning());
+    }
+
+    @Test
+    void testRejectsCalculationWhenQueueStaysFull() throws Exception {
+        // Arrange
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return null;
+        }).when(transactionManager).commit(any());
+        writeBehind = start(1, 1, Duration.ofMillis(10), Duration.ofMillis(100));
+
+        // Act
+        // the first calculation blocks the flusher, the second fills the queue
+        enqueue(1);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        enqueue(1);
+        long start = System.nanoTime();
+        assertThrows(WriteBehindQueueFullException.class, () -> writeBehind.enqueue(new InsuranceCalculation()));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+        release.countDown();
+        writeBehind.stop();
+
+        // Assert
+        assertTrue(waitedMillis >= 100, "rejected after " + waitedMillis + " ms");
+        assertEquals(2, savedCount());
+    }
+
+    @Test
+    void testRetriesFailedFlushAndCountsDroppedCalculations() {
+        // Arrange
+        reset(repository);
+        when(repository.saveAll(anyIterable())).thenThrow(new IllegalStateException("database down"));
+        writeBehind = start(100, 10, Duration.ofMillis(10), Duration.ofSeconds(1));
+        List<InsuranceCalculation> accepted = enqueue(4);
+
+        // Act
+        writeBehind.stop();
+
+        // Assert
+        assertEquals(accepted.size(), meterRegistry.counter("insurance.write.behind.dropped").count());
+        verify(repository, atLeast(3)).saveAll(anyIterable());
+        // each failed batch is attempted three times
+        assertEquals(0, mockingDetails(repository).getInvocations().size() % 3);
+    }
+
+    @Test
+    void testStopDrainsQueue() {
+        // Arrange
+        writeBehind = start(100, 10, Duration.ofMillis(200), Duration.ofSeconds(1));
+        List<InsuranceCalculation> accepted = enqueue(25);
+
+        // Act
+        writeBehind.stop();
+
+        // Assert
+        assertFalse(writeBehind.isRunning());
+        assertEquals(accepted, batches.stream().flatMap(List::stream).toList());
+        assertThrows(WriteBehindQueueFullException.class, () -> writeBehind.enqueue(new InsuranceCalculation()));
+    }
+
+    @Test
+    void testEveryCalculationAcceptedDuringStopIsSaved() throws Exception {
+        // Arrange
+        writeBehind = start(50, 10, Duration.ofMillis(5), Duration.ofMillis(50));
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (true) {
+                        writeBehind.enqueue(new InsuranceCalculation());
+                        accepted.incrementAndGet();
+                    }
+                } catch (WriteBehindQueueFullException e) {
+                    // rejected because the write-behind is stopping or the queue stayed full
+                }
+            }));
+        }
+        Thread.sleep(100);
+
+        // Act
+        writeBehind.stop();
+        for (Thread producer : producers) {
+            producer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        // Assert
+        assertTrue(accepted.get() > 0);
+        assertEquals(accepted.get(), savedCount());
+        assertEquals(0.0, meterRegistry.counter("insurance.write.behind.dropped").count());
+    }
+
+    private InsuranceCalculationWriteBehind start(int capacity, int batchSize, Duration flushInterval, Duration offerTimeout) {
+        InsuranceCalculationWriteBehind started = new InsuranceCalculationWriteBehind(
+                new WriteBehindProperties(true, capacity, batchSize, flushInterval, offerTimeout),
+                repository, transactionManager, meterRegistry, new StandardEnvironment());
+        started.start();
+        return started;
+    }
+
+    private List<InsuranceCalculation> enqueue(int count) {
+        List<InsuranceCalculation> calculations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InsuranceCalculation calculation = new InsuranceCalculation();
+            calculation.setAnnualKilometers(i);
+            writeBehind.enqueue(calculation);
+            calculations.add(calculation);
+        }
+        return calculations;
+    }
+
+    private int savedCount() {
+        return batches.stream().mapToInt(List::size).sum();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,64 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.RegionSnapshotConfig;
+import com.insurance.premium.dto.NearestRegionDTO;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.snapshot.RegionSnapshot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearestRegionIndexTest {
+
+    private static RegionSnapshot snapshot;
+    private static NearestRegionIndex nearestRegionIndex;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        snapshot = new RegionSnapshotConfig().regionSnapshot();
+        nearestRegionIndex = new NearestRegionIndex(snapshot);
+    }
+
+    @Test
+    void testFindNearestForExactLocation() {
+        // Act
+        NearestRegionDTO result = nearestRegionIndex.findNearest(47.91582, 7.69985).orElseThrow();
+
+        // Assert
+        assertEquals("79189", result.postcode());
+        assertEquals(BundeslandISO.DE_BW, result.bundesland());
+        assertEquals(0.0, result.distanceKm(), 1e-6);
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        // Arrange
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            double latitude = 47 + random.nextDouble() * 8.5;
+            double longitude = 5.5 + random.nextDouble() * 10;
+
+            // Act
+            int record = nearestRegionIndex.nearestRecord(latitude, longitude);
+
+            // Assert
+            double expected = Double.POSITIVE_INFINITY;
+            for (int candidate = 0; candidate < snapshot.recordCount(); candidate++) {
+                expected = Math.min(expected, NearestRegionIndex.distanceKm(latitude, longitude,
+                        snapshot.latitude(candidate), snapshot.longitude(candidate)));
+            }
+            assertEquals(expected, NearestRegionIndex.distanceKm(latitude, longitude,
+                    snapshot.latitude(record), snapshot.longitude(record)), 1e-9);
+        }
+    }
+
+    @Test
+    void testDistanceKm() {
+        // Berlin Alexanderplatz to München Marienplatz is about 504 km
+        assertEquals(504, NearestRegionIndex.distanceKm(52.5219, 13.4132, 48.1374, 11.5755), 2);
+    }
+}
@@ -0,0 +1,38 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.RegionSnapshotConfig;
+import com.insurance.premium.enums.BundeslandISO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeIndexTest {
+
+    private static PostcodeIndex postcodeIndex;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postcodeIndex = new PostcodeIndex(new RegionSnapshotConfig().regionSnapshot());
+    }
+
+    @Test
+    void testFindBundeslandAndDistrict() {
+        assertEquals(BundeslandISO.DE_BW, postcodeIndex.findBundesland("79189"));
+        assertEquals("Breisgau-Hochschwarzwald", postcodeIndex.findDistrict("79189"));
+    }
+
+    @Test
+    void testUnknownOrInvalidPostcodes() {
+        assertNull(postcodeIndex.findBundesland("12345"));
+        assertNull(postcodeIndex.findBundesland("7918"));
+        assertNull(postcodeIndex.findBundesland("79I89"));
+        assertNull(postcodeIndex.findDistrict(null));
+    }
+
+    @Test
+    void testIndexCoversAllDistinctPostcodes() {
+        assertEquals(8189, postcodeIndex.size());
+        assertTrue(postcodeIndex.footprintBytes() > 0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PremiumRateTableTest {
+
+    private static final int[] KILOMETERS = {
+            Integer.MIN_VALUE, -1, 0, 1, 4999, 5000, 5001, 9999, 10000, 10001,
+            19999, 20000, 20001, 50000, Integer.MAX_VALUE
+    };
+
+    /**
+     * Die bisherige Berechnung aus dem InsuranceCalculationService, inklusive Boxing, als Referenz.
+     */
+    private Double referencePremium(Integer kilometers, VehicleType vehicleType, BundeslandISO region) {
+        Double kilometerFactor = referenceKilometerFactor(kilometers);
+        Double vehicleFactor = vehicleType.getVehicleFactor();
+        Double regionFactor = region.getRegionFactor();
+
+        return kilometerFactor * vehicleFactor * regionFactor;
+    }
+
+    private Double referenceKilometerFactor(Integer kilometers) {
+        if (kilometers <= 5000) {
+            return 0.5;
+        } else if (kilometers <= 10000) {
+            return 1.0;
+        } else if (kilometers <= 20000) {
+            return 1.5;
+        } else {
+            return 2.0;
+        }
+    }
+
+    @Test
+    void testPremiumMatchesReferenceFormulaBitForBit() {
+        for (VehicleType vehicleType : VehicleType.values()) {
+            for (BundeslandISO region : BundeslandISO.values()) {
+                for (int kilometers : KILOMETERS) {
+                    // Arrange
+                    double expected = referencePremium(kilometers, vehicleType, region);
+
+                    // Act
+                    double actual = PremiumRateTable.STANDARD.premium(vehicleType, region, kilometers);
+
+                    // Assert
+                    assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual),
+                            vehicleType + " / " + region + " / " + kilometers + " km");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testKilometerBandBoundaries() {
+        assertEquals(0, PremiumRateTable.STANDARD.kilometerBand(5000));
+        assertEquals(1, PremiumRateTable.STANDARD.kilometerBand(5001));
+        assertEquals(1, PremiumRateTable.STANDARD.kilometerBand(10000));
+        assertEquals(2, PremiumRateTable.STANDARD.kilometerBand(10001));
+        assertEquals(2, PremiumRateTable.STANDARD.kilometerBand(20000));
+        assertEquals(3, PremiumRateTable.STANDARD.kilometerBand(20001));
+    }
+
+    @Test
+    void testOfRejectsIncompleteOrInvalidTariffs() {
+        // Arrange
+        Map<VehicleType, Double> vehicleFactors = new EnumMap<>(VehicleType.class);
+        Map<BundeslandISO, Double> regionFactors = new EnumMap<>(BundeslandISO.class);
+        for (VehicleType vehicleType : VehicleType.values()) {
+            vehicleFactors.put(vehicleType, vehicleType.getVehicleFactor());
+        }
+        for (BundeslandISO region : BundeslandISO.values()) {
+            regionFactors.put(region, region.getRegionFactor());
+        }
+        Map<VehicleType, Double> missingCar = new EnumMap<>(vehicleFactors);
+        missingCar.remove(VehicleType.CAR);
+        Map<BundeslandISO, Double> nanRegion = new EnumMap<>(regionFactors);
+        nanRegion.put(BundeslandISO.DE_BE, Double.NaN);
+        int[] limits = {5000, 10000, 20000};
+        double[] factors = {0.5, 1.0, 1.5, 2.0};
+
+        // Act
+        PremiumRateTable table = PremiumRateTable.of("2024-01", vehicleFactors, regionFactors, limits, factors);
+
+        // Assert
+        assertTrue(table.hasSameRates(PremiumRateTable.STANDARD));
+        assertThrows(IllegalArgumentException.class, () -> PremiumRateTable.of(" ", vehicleFactors, regionFactors, limits, factors));
+        assertThrows(IllegalArgumentException.class, () -> PremiumRateTable.of("v", missingCar, regionFactors, limits, factors));
+        assertThrows(IllegalArgumentException.class, () -> PremiumRateTable.of("v", vehicleFactors, nanRegion, limits, factors));
+        assertThrows(IllegalArgumentException.class, () -> PremiumRateTable.of("v", vehicleFactors, regionFactors, limits, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class, () -> PremiumRateTable.of("v", vehicleFactors, regionFactors,
+                new int[]{5000, 5000, 20000}, factors));
+    }
+}
@@ -0,0 +1,157 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.InsuranceCalculationFilter;
+import com.insurance.premium.dto.InsuranceCalculationPage;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveInsuranceCalculationServiceTest {
+
+    private static final InsuranceCalculationFilter EMPTY_FILTER = new InsuranceCalculationFilter(null, null, null, null, null);
+
+    private DatabaseClient databaseClient;
+    private InsuranceCalculationService insuranceCalculationService;
+    private ReactiveInsuranceCalculationService reactiveService;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///reactive-insurance;DB_CLOSE_DELAY=-1"));
+        for (String statement : List.of(
+                "DROP TABLE IF EXISTS insurance_calculation",
+                "DROP SEQUENCE IF EXISTS insurance_calculation_seq",
+                "CREATE SEQUENCE insurance_calculation_seq START WITH 1 INCREMENT BY 1000",
+                "CREATE TABLE insurance_calculation (id BIGINT PRIMARY KEY, annual_kilometers INT, postcode VARCHAR(255), "
+                        + "registration_office VARCHAR(255), vehicle_type VARCHAR(255), calculated_premium DOUBLE PRECISION, "
+                        + "tariff_version VARCHAR(255), created_at TIMESTAMP WITH TIME ZONE NOT NULL)")) {
+            databaseClient.sql(statement).then().block();
+        }
+        TariffEngine tariffEngine = mock(TariffEngine.class);
+        when(tariffEngine.current()).thenReturn(PremiumRateTable.STANDARD);
+        insuranceCalculationService = new InsuranceCalculationService(null, mock(PostcodeIndex.class), null,
+                mock(PremiumMetrics.class), tariffEngine);
+        reactiveService = new ReactiveInsuranceCalculationService(databaseClient, insuranceCalculationService);
+    }
+
+    @Test
+    void testCalculateInsuranceStoresCalculationWithPremiumFromPricingLogic() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 5000, "12345", "Berlin", VehicleType.CAR, null, null);
+        double expectedPremium = 0.5 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor();
+
+        // Act
+        InsuranceCalculationDTO saved = reactiveService.calculateInsurance(dto).block();
+        InsuranceCalculationDTO loaded = reactiveService.getById(saved.id()).block();
+
+        // Assert
+        assertNotNull(saved.id());
+        assertEquals(expectedPremium, saved.calculatedPremium());
+        assertEquals(PremiumRateTable.STANDARD_VERSION, saved.tariffVersion());
+        assertEquals(saved, loaded);
+    }
+
+    @Test
+    void testCalculateInsuranceAssignsUniqueIncreasingIdsAcrossSequenceBlocks() {
+        // Arrange
+        InsuranceCalculationDTO dto = new InsuranceCalculationDTO(null, 5000, "12345", "Berlin", VehicleType.CAR, null, null);
+
+        // Act
+        long first = reactiveService.calculateInsurance(dto).block().id();
+        long second = reactiveService.calculateInsurance(dto).block().id();
+        long third = reactiveService.calculateInsurance(dto).block().id();
+
+        // Assert
+        assertTrue(first < second && second < third);
+        Long hibernateBlockEnd = databaseClient.sql("SELECT nextval('insurance_calculation_seq')")
+                .map(row -> row.get(0, Long.class)).one().block();
+        assertTrue(hibernateBlockEnd - 999 > third, "a block reserved by another writer must not overlap");
+    }
+
+    @Test
+    void testGetPageReturnsFilteredRowsWithCursor() {
+        // Arrange
+        for (VehicleType vehicleType : List.of(VehicleType.CAR, VehicleType.TRUCK, VehicleType.CAR, VehicleType.CAR)) {
+            reactiveService.calculateInsurance(new InsuranceCalculationDTO(null, 5000, null, "Berlin", vehicleType, null, null)).block();
+        }
+        var cars = new InsuranceCalculationFilter(VehicleType.CAR, null, null, null, null);
+
+        // Act
+        InsuranceCalculationPage firstPage = reactiveService.getPage(cars, null, 2).block();
+        InsuranceCalculationPage secondPage = reactiveService.getPage(cars, firstPage.nextAfterId(), 2).block();
+        InsuranceCalculationPage all = reactiveService.getPage(EMPTY_FILTER, null, 10).block();
+
+        // Assert
+        assertEquals(2, firstPage.items().size());
+        assertEquals(firstPage.items().get(1).id(), firstPage.nextAfterId());
+        assertEquals(1, secondPage.items().size());
+        assertNull(secondPage.nextAfterId());
+        assertTrue(secondPage.items().get(0).id() > firstPage.nextAfterId());
+        assertEquals(4, all.items().size());
+    }
+
+    @Test
+    void testUpdateRecalculatesPremiumAndReturnsEmptyForUnknownId() {
+        // Arrange
+        InsuranceCalculationDTO saved = reactiveService.calculateInsurance(
+                new InsuranceCalculationDTO(null, 5000, "12345", "Berlin", VehicleType.CAR, null, null)).block();
+        InsuranceCalculationDTO changed = new InsuranceCalculationDTO(null, 15000, "12345", "Bayern", VehicleType.MOTORCYCLE, 1.0, null);
+
+        // Act
+        InsuranceCalculationDTO updated = reactiveService.update(saved.id(), changed).block();
+        InsuranceCalculationDTO missing = reactiveService.update(saved.id() + 1, changed).block();
+
+        // Assert
+        assertEquals(saved.id(), updated.id());
+        assertEquals(1.5 * VehicleType.MOTORCYCLE.getVehicleFactor() * BundeslandISO.DE_BY.getRegionFactor(), updated.calculatedPremium());
+        assertEquals(updated, reactiveService.getById(saved.id()).block());
+        assertNull(missing);
+    }
+
+    @Test
+    void testPatchKeepsUnsuppliedFieldsAndRecalculatesPremium() {
+        // Arrange
+        InsuranceCalculationDTO saved = reactiveService.calculateInsurance(
+                new InsuranceCalculationDTO(null, 5000, "12345", "Berlin", VehicleType.CAR, null, null)).block();
+        InsuranceCalculationDTO changes = new InsuranceCalculationDTO(null, 15000, null, null, null, null, null);
+
+        // Act
+        InsuranceCalculationDTO patched = reactiveService.patch(saved.id(), changes).block();
+        InsuranceCalculationDTO missing = reactiveService.patch(saved.id() + 1, changes).block();
+
+        // Assert
+        assertEquals(new InsuranceCalculationDTO(saved.id(), 15000, "12345", "Berlin", VehicleType.CAR,
+                1.5 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor(), PremiumRateTable.STANDARD_VERSION), patched);
+        assertEquals(patched, reactiveService.getById(saved.id()).block());
+        assertNull(missing);
+    }
+
+    @Test
+    void testCommitQuoteRejectsChangedPremiumAndDeleteRemovesRow() {
+        // Arrange
+        InsuranceCalculationDTO quote = reactiveService.quote(
+                new InsuranceCalculationDTO(null, 5000, "12345", "Berlin", VehicleType.CAR, null, null)).block();
+        InsuranceCalculationDTO stale = new InsuranceCalculationDTO(null, quote.annualKilometers(), quote.postcode(),
+                quote.registrationOffice(), quote.vehicleType(), quote.calculatedPremium() + 1, null);
+
+        // Act
+        InsuranceCalculationDTO committed = reactiveService.commitQuote(quote).block();
+        InsuranceCalculationDTO rejected = reactiveService.commitQuote(stale).block();
+        reactiveService.delete(committed.id()).block();
+
+        // Assert
+        assertNull(quote.id());
+        assertNotNull(committed.id());
+        assertNull(rejected);
+        assertNull(reactiveService.getById(committed.id()).block());
+    }
+}
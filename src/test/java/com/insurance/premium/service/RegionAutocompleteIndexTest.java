@@ -0,0 +1,52 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.RegionSnapshotConfig;
+import com.insurance.premium.dto.RegionSuggestionDTO;
+import com.insurance.premium.enums.BundeslandISO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionAutocompleteIndexTest {
+
+    private static RegionAutocompleteIndex autocompleteIndex;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        autocompleteIndex = new RegionAutocompleteIndex(new RegionSnapshotConfig().regionSnapshot());
+    }
+
+    @Test
+    void testSuggestPostcodesInOrder() {
+        // Act
+        List<RegionSuggestionDTO> result = autocompleteIndex.suggest("791", 3);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(suggestion -> suggestion.postcode().startsWith("791")));
+        assertTrue(result.get(0).postcode().compareTo(result.get(1).postcode()) < 0);
+        assertEquals(BundeslandISO.DE_BW, result.get(0).bundesland());
+    }
+
+    @Test
+    void testSuggestCitiesIgnoringCase() {
+        // Act
+        List<RegionSuggestionDTO> result = autocompleteIndex.suggest("BAD KROZ", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("Bad Krozingen", result.get(0).city());
+        assertEquals("79189", result.get(0).postcode());
+    }
+
+    @Test
+    void testLimitAndUnknownPrefix() {
+        assertEquals(5, autocompleteIndex.suggest("Neu", 5).size());
+        assertTrue(autocompleteIndex.suggest("Xyzzy", 5).isEmpty());
+        assertTrue(autocompleteIndex.suggest("123456", 5).isEmpty());
+        assertTrue(autocompleteIndex.suggest(" ", 5).isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.entity.RegionData;
+import com.insurance.premium.repository.RegionDataRepository;
+import com.insurance.premium.repository.RegionDataVersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Import({RegionDataService.class, SimpleMeterRegistry.class})
+class RegionDataServiceTest {
+
+    @Autowired
+    private RegionDataService regionDataService;
+
+    @Autowired
+    private RegionDataRepository regionDataRepository;
+
+    @Autowired
+    private RegionDataVersionRepository regionDataVersionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // the registry is shared by all tests of this context
+        meterRegistry.clear();
+    }
+
+    @Test
+    void testBulkInsertFromCSVStripsQuotesAndSkipsInvalidLines() {
+        // Act
+        regionDataService.bulkInsertFromCSV(new ClassPathResource("data/postcodes-sample.csv"));
+
+        // Assert
+        List<RegionData> regions = regionDataRepository.findAll().stream()
+                .sorted(Comparator.comparing(RegionData::getPostleitzahl))
+                .toList();
+        assertEquals(5, regions.size());
+
+        RegionData badKrozingen = regions.get(1);
+        assertEquals("79189", badKrozingen.getPostleitzahl());
+        assertEquals("DE-BW", badKrozingen.getBundeslandIso());
+        assertEquals("Baden-Württemberg", badKrozingen.getBundesland());
+        assertEquals("Breisgau-Hochschwarzwald", badKrozingen.getLand());
+        assertEquals("Bad Krozingen", badKrozingen.getStadt());
+        assertEquals(47.91582, badKrozingen.getLocation().getLatitude());
+        assertEquals(7.69985, badKrozingen.getLocation().getLongitude());
+
+        RegionData freiburg = regions.get(0);
+        assertNull(freiburg.getStadt());
+
+        RegionData muenchen = regions.get(4);
+        assertEquals("München, Landeshauptstadt", muenchen.getLand());
+        assertEquals("München \"Stadt\"", muenchen.getStadt());
+
+        assertEquals(5.0, meterRegistry.get("region.data.import.rows").tag("mode", "bulk").counter().count());
+        assertEquals(1L, meterRegistry.get("region.data.import").tag("mode", "bulk").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testSyncFromCSVSkipsUnchangedFileAndAppliesDiff() {
+        // Arrange
+        var original = new ClassPathResource("data/postcodes-sample.csv");
+        var changed = new ClassPathResource("data/postcodes-sample-changed.csv");
+
+        // Act
+        regionDataService.syncFromCSV(original);
+        List<Long> idsAfterImport = regionDataRepository.findAll().stream().map(RegionData::getId).sorted().toList();
+        regionDataService.syncFromCSV(original);
+        List<Long> idsAfterSkip = regionDataRepository.findAll().stream().map(RegionData::getId).sorted().toList();
+        long versionAfterSkip = regionDataVersionRepository.findById("postcodes").orElseThrow().getVersion();
+        regionDataService.syncFromCSV(changed);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(idsAfterImport, idsAfterSkip);
+        assertEquals(1L, versionAfterSkip);
+        assertEquals(2L, regionDataVersionRepository.findById("postcodes").orElseThrow().getVersion());
+
+        List<RegionData> regions = regionDataRepository.findAll();
+        assertEquals(5, regions.size());
+        assertTrue(regions.stream().noneMatch(region -> region.getPostleitzahl().equals("79206")));
+        assertTrue(regions.stream().anyMatch(region -> region.getPostleitzahl().equals("20095")));
+        RegionData badKrozingen = regions.stream().filter(region -> region.getPostleitzahl().equals("79189")).findFirst().orElseThrow();
+        assertTrue(idsAfterImport.contains(badKrozingen.getId()));
+        assertEquals(47.916, badKrozingen.getLocation().getLatitude());
+        assertEquals(1L, meterRegistry.get("region.data.import").tag("mode", "sync").tag("outcome", "skipped").timer().count());
+        assertEquals(2L, meterRegistry.get("region.data.import").tag("mode", "sync").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testSyncFromCSVWithoutVersionDiffsAgainstExistingRows() {
+        // Arrange
+        // the table was filled by a bulk import, so there is no version yet
+        regionDataService.bulkInsertFromCSV(new ClassPathResource("data/postcodes-sample.csv"));
+        List<Long> idsAfterImport = regionDataRepository.findAll().stream().map(RegionData::getId).sorted().toList();
+
+        // Act
+        regionDataService.syncFromCSV(new ClassPathResource("data/postcodes-sample.csv"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(idsAfterImport, regionDataRepository.findAll().stream().map(RegionData::getId).sorted().toList());
+        assertEquals(1L, regionDataVersionRepository.findById("postcodes").orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,205 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.CacheConfig;
+import com.insurance.premium.config.RepricingProperties;
+import com.insurance.premium.dto.InsuranceCalculationDTO;
+import com.insurance.premium.dto.RepricingStatusDTO;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.entity.RepricingCheckpoint;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import com.insurance.premium.repository.RepricingCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepricingJobTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InsuranceCalculationRepository repository;
+
+    @Autowired
+    private RepricingCheckpointRepository checkpointRepository;
+
+    private final TariffEngine tariffEngine = mock(TariffEngine.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.INSURANCE_CALCULATIONS);
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        checkpointRepository.deleteAll();
+        when(tariffEngine.current()).thenReturn(PremiumRateTable.STANDARD);
+
+        List<InsuranceCalculation> calculations = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            InsuranceCalculation calculation = new InsuranceCalculation();
+            calculation.setAnnualKilometers(i == 3 ? null : 4000 + i * 4000);
+            calculation.setRegistrationOffice("Berlin");
+            calculation.setVehicleType(VehicleType.CAR);
+            calculation.setCalculatedPremium(99.0);
+            calculation.setTariffVersion("2023-01");
+            calculations.add(calculation);
+        }
+        ids = repository.saveAll(calculations).stream().map(InsuranceCalculation::getId).sorted().toList();
+    }
+
+    @Test
+    void testRepriceUpdatesAllRowsWithActiveTariffAndEvictsCache() {
+        // Arrange
+        cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS).put(ids.get(0), "stale");
+
+        // Act
+        RepricingStatusDTO status = job(jdbcTemplate).reprice();
+
+        // Assert
+        assertEquals("COMPLETED", status.state());
+        assertEquals(6, status.processedRows());
+        assertEquals(1, status.skippedRows());
+        assertEquals(7, status.totalRows());
+        assertNull(status.etaSeconds());
+        for (InsuranceCalculation calculation : repository.findAllById(ids)) {
+            if (calculation.getAnnualKilometers() == null) {
+                assertEquals("2023-01", calculation.getTariffVersion());
+                continue;
+            }
+            assertEquals(PremiumRateTable.STANDARD_VERSION, calculation.getTariffVersion());
+            assertEquals(PremiumRateTable.STANDARD.premium(VehicleType.CAR, BundeslandISO.DE_BE, calculation.getAnnualKilometers()),
+                    calculation.getCalculatedPremium());
+        }
+        assertNull(cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS).get(ids.get(0)));
+        RepricingCheckpoint checkpoint = checkpointRepository.findById(RepricingJob.JOB).orElseThrow();
+        assertEquals(RepricingCheckpoint.State.COMPLETED, checkpoint.getState());
+        assertEquals(ids.get(6), checkpoint.getLastId());
+    }
+
+    @Test
+    void testRepriceResumesFromCheckpointAfterFailedChunk() {
+        // Arrange
+        JdbcTemplate failingJdbcTemplate = spy(jdbcTemplate);
+        doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(failingJdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<InsuranceCalculationDTO>>any());
+
+        // Act
+        RepricingStatusDTO failed = job(failingJdbcTemplate).reprice();
+        RepricingCheckpoint afterFailure = checkpointRepository.findById(RepricingJob.JOB).orElseThrow();
+        String lastWritten = repository.findById(ids.get(1)).orElseThrow().getTariffVersion();
+        String firstOfFailedChunk = repository.findById(ids.get(2)).orElseThrow().getTariffVersion();
+        RepricingStatusDTO resumed = job(jdbcTemplate).reprice();
+
+        // Assert
+        assertEquals("FAILED", failed.state());
+        assertEquals(RepricingCheckpoint.State.FAILED, afterFailure.getState());
+        assertEquals(ids.get(1), afterFailure.getLastId());
+        assertEquals(2, afterFailure.getProcessedRows());
+        assertEquals(PremiumRateTable.STANDARD_VERSION, lastWritten);
+        assertEquals("2023-01", firstOfFailedChunk, "failed chunk is not written");
+        assertEquals("COMPLETED", resumed.state());
+        assertEquals(6, resumed.processedRows(), "rows before the checkpoint are not repriced twice");
+        assertEquals(7, resumed.totalRows());
+    }
+
+    @Test
+    void testRepriceSkipsRowsAlreadyPricedWithActiveTariff() {
+        // Arrange
+        RepricingJob job = job(jdbcTemplate);
+        job.reprice();
+
+        // Act
+        RepricingStatusDTO again = job.reprice();
+
+        // Assert
+        assertEquals("COMPLETED", again.state());
+        assertEquals(0, again.processedRows());
+        assertEquals(1, again.skippedRows(), "only the row without kilometers is still pending");
+    }
+
+    @Test
+    void testRepriceIsSkippedWhileAnotherNodeHoldsTheLock() throws Exception {
+        // Arrange
+        // a PostgreSQL connection whose pg_try_advisory_lock call returns false
+        ResultSet result = mock(ResultSet.class);
+        when(result.next()).thenReturn(true);
+        when(result.getBoolean(1)).thenReturn(false);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(result);
+        Connection connection = mock(Connection.class);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        JdbcTemplate lockedJdbcTemplate = spy(jdbcTemplate);
+        doReturn(dataSource).when(lockedJdbcTemplate).getDataSource();
+
+        // Act
+        RepricingStatusDTO skipped = job(lockedJdbcTemplate).reprice();
+
+        // Assert
+        assertEquals("SKIPPED", skipped.state());
+        verify(connection).prepareStatement("SELECT pg_try_advisory_lock(?)");
+        verify(connection).close();
+        assertTrue(repository.findAll().stream().allMatch(calculation -> "2023-01".equals(calculation.getTariffVersion())));
+        assertEquals(0, checkpointRepository.count());
+    }
+
+    @Test
+    void testServiceRepriceDoesNotCountAsNewCalculation() {
+        // Arrange
+        PremiumMetrics premiumMetrics = mock(PremiumMetrics.class);
+        InsuranceCalculationService service = new InsuranceCalculationService(null, mock(PostcodeIndex.class), null,
+                premiumMetrics, tariffEngine);
+
+        // Act
+        InsuranceCalculationDTO repriced = service.reprice(
+                new InsuranceCalculationDTO(1L, 5000, null, "Berlin", VehicleType.CAR, 99.0, "2023-01"), PremiumRateTable.STANDARD);
+
+        // Assert
+        assertEquals(0.5 * VehicleType.CAR.getVehicleFactor() * BundeslandISO.DE_BE.getRegionFactor(), repriced.calculatedPremium());
+        assertEquals(PremiumRateTable.STANDARD_VERSION, repriced.tariffVersion());
+        verifyNoInteractions(premiumMetrics);
+    }
+
+    private RepricingJob job(JdbcTemplate jdbcTemplate) {
+        InsuranceCalculationService service = new InsuranceCalculationService(null, mock(PostcodeIndex.class), null,
+                mock(PremiumMetrics.class), tariffEngine);
+        return new RepricingJob(new RepricingProperties(2, 2, false, Duration.ofSeconds(10)), jdbcTemplate, transactionManager,
+                checkpointRepository, service, tariffEngine, cacheManager, new StandardEnvironment());
+    }
+}
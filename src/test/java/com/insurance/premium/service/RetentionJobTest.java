@@ -0,0 +1,140 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.CacheConfig;
+import com.insurance.premium.config.RetentionProperties;
+import com.insurance.premium.dto.RetentionStatusDTO;
+import com.insurance.premium.entity.InsuranceCalculation;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.repository.InsuranceCalculationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RetentionJobTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InsuranceCalculationRepository repository;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.INSURANCE_CALCULATIONS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        List<InsuranceCalculation> calculations = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            InsuranceCalculation calculation = new InsuranceCalculation();
+            calculation.setAnnualKilometers(5000);
+            calculation.setRegistrationOffice("Berlin");
+            calculation.setVehicleType(VehicleType.CAR);
+            calculation.setCalculatedPremium(0.375);
+            calculations.add(calculation);
+        }
+        ids = repository.saveAll(calculations).stream().map(InsuranceCalculation::getId).sorted().toList();
+    }
+
+    @Test
+    void testPurgeDeletesExpiredRowsInChunksAndEvictsThem() {
+        // Arrange
+        // the first five calculations are three years old, the other two were just stored
+        OffsetDateTime threeYearsAgo = OffsetDateTime.now(ZoneOffset.UTC).minusYears(3);
+        for (Long id : ids.subList(0, 5)) {
+            jdbcTemplate.update("UPDATE insurance_calculation SET created_at = ? WHERE id = ?", threeYearsAgo, id);
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.INSURANCE_CALCULATIONS);
+        cache.put(ids.get(0), "expired");
+        cache.put(ids.get(6), "current");
+
+        // Act
+        RetentionStatusDTO status = job().purge();
+
+        // Assert
+        assertEquals("COMPLETED", status.state());
+        assertFalse(status.partitioned());
+        assertEquals(5, status.deletedRows());
+        assertNotNull(status.finishedAt());
+        assertEquals(ids.subList(5, 7), repository.findAll().stream().map(InsuranceCalculation::getId).sorted().toList());
+        assertNull(cache.get(ids.get(0)));
+        assertNotNull(cache.get(ids.get(6)));
+        assertEquals(5.0, meterRegistry.counter("retention.deleted.rows").count());
+    }
+
+    @Test
+    void testPurgeKeepsCalculationsWithinRetentionPeriod() {
+        // Act
+        RetentionStatusDTO status = job().purge();
+
+        // Assert
+        assertEquals("COMPLETED", status.state());
+        assertEquals(0, status.deletedRows());
+        assertEquals(7, repository.count());
+        assertTrue(repository.findAll().stream().allMatch(calculation -> calculation.getCreatedAt() != null));
+    }
+
+    @Test
+    void testStartPurgeRunsInBackgroundAndRejectsSecondRun() throws InterruptedException {
+        // Arrange
+        OffsetDateTime threeYearsAgo = OffsetDateTime.now(ZoneOffset.UTC).minusYears(3);
+        for (Long id : ids.subList(0, 5)) {
+            jdbcTemplate.update("UPDATE insurance_calculation SET created_at = ? WHERE id = ?", threeYearsAgo, id);
+        }
+        // the long pause keeps the run active after its first chunk until it is stopped
+        RetentionJob job = job(Duration.ofMinutes(1));
+
+        // Act
+        boolean started = job.startPurge();
+        boolean startedTwice = job.startPurge();
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (job.status().deletedRows() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        job.stop();
+
+        // Assert
+        assertTrue(started);
+        assertFalse(startedTwice);
+        assertEquals("STOPPED", job.status().state());
+        assertEquals(2, job.status().deletedRows());
+        assertEquals(5, repository.count());
+    }
+
+    private RetentionJob job() {
+        return job(Duration.ZERO);
+    }
+
+    private RetentionJob job(Duration chunkPause) {
+        RetentionProperties properties = new RetentionProperties(false, Period.ofYears(2), Duration.ofHours(1), 2, chunkPause, 3);
+        return new RetentionJob(properties, jdbcTemplate, transactionManager, cacheManager, meterRegistry, new StandardEnvironment());
+    }
+}
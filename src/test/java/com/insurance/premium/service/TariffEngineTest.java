@@ -0,0 +1,126 @@
+package com.insurance.premium.service;
+
+import com.insurance.premium.config.TariffProperties;
+import com.insurance.premium.enums.BundeslandISO;
+import com.insurance.premium.enums.VehicleType;
+import com.insurance.premium.exception.InvalidTariffException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffEngineTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testBundledTariffMatchesStandardRates() {
+        // Act
+        TariffEngine tariffEngine = engine("classpath:tariff/tariff.json", false);
+
+        // Assert
+        assertEquals("2024-01", tariffEngine.current().version());
+        assertTrue(tariffEngine.current().hasSameRates(PremiumRateTable.STANDARD));
+    }
+
+    @Test
+    void testReloadPublishesNewVersion() throws IOException {
+        // Arrange
+        Path file = writeTariff("2025-01", 2.0);
+        TariffEngine tariffEngine = engine(file.toUri().toString(), false);
+        PremiumRateTable before = tariffEngine.current();
+        writeTariff("2025-02", 3.0);
+
+        // Act
+        PremiumRateTable after = tariffEngine.reload();
+
+        // Assert
+        assertEquals("2025-01", before.version());
+        assertEquals("2025-02", after.version());
+        assertSame(after, tariffEngine.current());
+        assertEquals(2.0 * 1.0 * 1.0, before.premium(VehicleType.CAR, BundeslandISO.DE_BE, 1000));
+        assertEquals(3.0 * 1.0 * 1.0, after.premium(VehicleType.CAR, BundeslandISO.DE_BE, 1000));
+        assertEquals(2, meterRegistry.counter("tariff.reloads", "outcome", "success").count());
+    }
+
+    @Test
+    void testReloadKeepsActiveTariffWhenFileIsInvalid() throws IOException {
+        // Arrange
+        Path file = writeTariff("2025-01", 2.0);
+        TariffEngine tariffEngine = engine(file.toUri().toString(), false);
+        PremiumRateTable active = tariffEngine.current();
+
+        // Act / Assert
+        Files.writeString(file, tariffJson("2025-02", 2.0).replace("\"CAR\": 1.0", "\"CAR\": -1.0"));
+        assertThrows(InvalidTariffException.class, tariffEngine::reload);
+        Files.writeString(file, "{\"version\":");
+        assertThrows(InvalidTariffException.class, tariffEngine::reload);
+        writeTariff("2025-01", 5.0);
+        assertThrows(InvalidTariffException.class, tariffEngine::reload, "changed factors need a new version");
+        writeTariff("2025-01", 2.0);
+        assertSame(active, tariffEngine.reload());
+        assertSame(active, tariffEngine.current());
+        assertEquals(3, meterRegistry.counter("tariff.reloads", "outcome", "failure").count());
+        assertEquals(1, meterRegistry.counter("tariff.reloads", "outcome", "unchanged").count());
+    }
+
+    @Test
+    void testWatcherReloadsChangedFile() throws Exception {
+        // Arrange
+        Path file = writeTariff("2025-01", 2.0);
+        TariffEngine tariffEngine = engine(file.toUri().toString(), true);
+        tariffEngine.start();
+
+        try {
+            // Act
+            writeTariff("2025-02", 3.0);
+
+            // Assert
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (!"2025-02".equals(tariffEngine.current().version()) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals("2025-02", tariffEngine.current().version());
+        } finally {
+            tariffEngine.stop();
+        }
+        assertFalse(tariffEngine.isRunning());
+    }
+
+    private TariffEngine engine(String location, boolean watch) {
+        return new TariffEngine(new TariffProperties(location, watch), new DefaultResourceLoader(), meterRegistry,
+                new StandardEnvironment());
+    }
+
+    /**
+     * Schreibt einen Tarif, in dem alle Fahrzeug- und Regionalfaktoren 1.0 sind und nur der Kilometerfaktor variiert.
+     */
+    private Path writeTariff(String version, double kilometerFactor) throws IOException {
+        Path file = directory.resolve("tariff.json");
+        Files.writeString(file, tariffJson(version, kilometerFactor), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String tariffJson(String version, double kilometerFactor) {
+        StringBuilder json = new StringBuilder("{\"version\": \"").append(version).append("\", \"vehicleFactors\": {");
+        for (VehicleType vehicleType : VehicleType.values()) {
+            json.append(vehicleType.ordinal() > 0 ? ", " : "").append('"').append(vehicleType).append("\": 1.0");
+        }
+        json.append("}, \"regionFactors\": {");
+        for (BundeslandISO region : BundeslandISO.values()) {
+            json.append(region.ordinal() > 0 ? ", " : "").append('"').append(region).append("\": 1.0");
+        }
+        return json.append("}, \"kilometerBands\": [{\"factor\": ").append(kilometerFactor).append("}]}").toString();
+    }
+}
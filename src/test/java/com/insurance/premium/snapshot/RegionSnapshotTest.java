@@ -0,0 +1,60 @@
+package com.insurance.premium.snapshot;
+
+import com.insurance.premium.enums.BundeslandISO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndMapSnapshot() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("postcodes.snapshot");
+        try (InputStream csv = new ClassPathResource("data/postcodes-sample.csv").getInputStream()) {
+            assertEquals(5, RegionSnapshotWriter.write(csv, file));
+        }
+
+        // Act
+        RegionSnapshot snapshot = RegionSnapshot.open(file);
+        int badKrozingen = snapshot.findRecord(RegionSnapshot.parsePostcode("79189"));
+        int freiburg = snapshot.findRecord(RegionSnapshot.parsePostcode("79098"));
+
+        // Assert
+        assertEquals(5, snapshot.recordCount());
+        assertEquals(5, snapshot.postcodeCount());
+        assertEquals(79098, snapshot.postcode(0));
+        assertEquals(80331, snapshot.postcode(4));
+        assertEquals(79189, snapshot.postcode(badKrozingen));
+        assertEquals(BundeslandISO.DE_BW, snapshot.bundesland(badKrozingen));
+        assertEquals("Breisgau-Hochschwarzwald", snapshot.district(badKrozingen));
+        assertEquals("Bad Krozingen", snapshot.city(badKrozingen));
+        assertEquals("Bad Krozingen", snapshot.place(badKrozingen));
+        assertEquals(47.91582, snapshot.latitude(badKrozingen));
+        assertEquals(7.69985, snapshot.longitude(badKrozingen));
+        assertNull(snapshot.city(freiburg));
+        assertEquals(-1, snapshot.findRecord(RegionSnapshot.parsePostcode("12345")));
+        assertEquals(-1, snapshot.findRecord(RegionSnapshot.parsePostcode("abc")));
+    }
+
+    @Test
+    void testRejectsForeignFile() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("postcodes.csv");
+        try (InputStream csv = new ClassPathResource("data/postcodes-sample.csv").getInputStream()) {
+            Files.copy(csv, file);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> RegionSnapshot.open(file));
+    }
+}